@@ -0,0 +1,105 @@
+package com.rpg.charactercreator.service;
+
+import com.rpg.charactercreator.dto.CharacterWithDetailsDTO;
+import com.rpg.charactercreator.dto.InventoryItemDTO;
+import com.rpg.charactercreator.model.Character;
+import com.rpg.charactercreator.model.InventoryItem;
+import com.rpg.charactercreator.model.ItemDefinition;
+import com.rpg.charactercreator.model.RPGClass;
+import com.rpg.charactercreator.model.Skill;
+import com.rpg.charactercreator.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 🧪 Fristående testdata för JMH-benchmarks (inga repositories, ingen databas).
+ * Storlekarna motsvarar verkliga ytterligheter: 10–1000 skills per klass och inventory-staplar per karaktär.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    /** Klass med skillCount skills (id 1..skillCount), fem vapen och stats över taket (capStats har något att göra). */
+    static RPGClass rpgClass(int skillCount) {
+        RPGClass rpgClass = new RPGClass();
+        rpgClass.setClassId(1L);
+        rpgClass.setName("Warrior");
+        rpgClass.setDescription("A sturdy frontline fighter.");
+        rpgClass.setRole("tank");
+        rpgClass.setArmorType("plate");
+        rpgClass.setStartingWeapon("Longsword");
+        rpgClass.setStrength(9);
+        rpgClass.setDexterity(4);
+        rpgClass.setIntelligence(2);
+        rpgClass.setConstitution(8);
+        rpgClass.setWisdom(3);
+        rpgClass.setCharisma(6);
+        rpgClass.setWeapons(new ArrayList<>(List.of("Longsword", "Axe", "Mace", "Spear", "Shield")));
+
+        List<Skill> skills = new ArrayList<>(skillCount);
+        for (long id = 1; id <= skillCount; id++) {
+            Skill skill = new Skill();
+            skill.setId(id);
+            skill.setName("Skill " + id);
+            skill.setDescription("Description of skill " + id + ", long enough to look like real text.");
+            skill.setRpgClass(rpgClass);
+            skills.add(skill);
+        }
+        rpgClass.setSkillList(skills);
+        return rpgClass;
+    }
+
+    /** Karaktär av rpgClass med tre skills och itemCount olika inventory-staplar. */
+    static Character character(RPGClass rpgClass, int itemCount) {
+        User owner = new User();
+        owner.setUserId(1L);
+        owner.setUsername("bench");
+
+        Character character = new Character();
+        character.setId(1L);
+        character.setName("Benchmark Hero");
+        character.setBackground("Raised by benchmarks in a far-away data centre.");
+        character.setRpgClass(rpgClass);
+        character.setUser(owner);
+        character.setSkills(new ArrayList<>(lastSkills(rpgClass, 3)));
+        for (long id = 1; id <= itemCount; id++) {
+            ItemDefinition definition = new ItemDefinition(id, "Item " + id, "Description of item " + id + ".");
+            InventoryItem item = new InventoryItem(definition, (int) (id % 5) + 1, character);
+            item.setId(id);
+            character.getInventoryItems().add(item);
+        }
+        return character;
+    }
+
+    /** Id:n för klassens sista count skills (värsta fallet för en linjär sökning). */
+    static List<Long> lastSkillIds(RPGClass rpgClass, int count) {
+        return lastSkills(rpgClass, count).stream().map(Skill::getId).toList();
+    }
+
+    /** Tre valda startföremål, som i ett vanligt skapa-anrop. */
+    static List<InventoryItemDTO> chosenStartingItems() {
+        return List.of(
+                new InventoryItemDTO("Rope", "Fifty feet of hemp rope."),
+                new InventoryItemDTO("Torch", "Burns for an hour."),
+                new InventoryItemDTO("Rations", "Three days of food."));
+    }
+
+    /** pageSize DTO:er, var och en med itemCount inventory-namn (som en sida från GET /characters). */
+    static List<CharacterWithDetailsDTO> characterPage(CharacterService characterService, int pageSize, int itemCount) {
+        RPGClass rpgClass = rpgClass(10);
+        List<CharacterWithDetailsDTO> page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            CharacterWithDetailsDTO dto = characterService.toDTO(character(rpgClass, itemCount));
+            dto.setId((long) i + 1);
+            page.add(dto);
+        }
+        return page;
+    }
+
+    private static List<Skill> lastSkills(RPGClass rpgClass, int count) {
+        List<Skill> skills = rpgClass.getSkillList();
+        return skills.subList(Math.max(0, skills.size() - count), skills.size());
+    }
+}
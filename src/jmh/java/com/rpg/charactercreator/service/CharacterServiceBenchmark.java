@@ -0,0 +1,71 @@
+package com.rpg.charactercreator.service;
+
+import com.rpg.charactercreator.dto.CharacterWithDetailsDTO;
+import com.rpg.charactercreator.dto.InventoryItemDTO;
+import com.rpg.charactercreator.model.Character;
+import com.rpg.charactercreator.model.RPGClass;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ⏱️ CharacterService: DTO-mappning, skill-validering och startutrustning.
+ * size = antal skills i klassen och antal inventory-staplar hos karaktären.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CharacterServiceBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private CharacterService characterService;
+    private RPGClass rpgClass;
+    private Character character;
+    private List<Long> selectedSkillIds;
+    private List<InventoryItemDTO> startingItems;
+
+    @Setup
+    public void setUp() {
+        // Mappning och validering rör inga repositories
+        characterService = new CharacterService(null, null, null, null, null, null, null, null, null, null);
+        rpgClass = BenchmarkFixtures.rpgClass(size);
+        character = BenchmarkFixtures.character(rpgClass, size);
+        selectedSkillIds = BenchmarkFixtures.lastSkillIds(rpgClass, 3);
+        startingItems = BenchmarkFixtures.chosenStartingItems();
+    }
+
+    /** Character -> CharacterWithDetailsDTO (varje rad i GET /characters). */
+    @Benchmark
+    public CharacterWithDetailsDTO toDTO() {
+        return characterService.toDTO(character);
+    }
+
+    /** Tre valda skills mot klassens lista (validateSkillSelection, tidigare validateSelectedSkills). */
+    @Benchmark
+    public List<Long> validateSkillSelection() {
+        CharacterService.validateSkillSelection(rpgClass, selectedSkillIds);
+        return selectedSkillIds;
+    }
+
+    /** Startföremål + startvapen + standardrustning (startingInventory, tidigare assignDefaultEquipment). */
+    @Benchmark
+    public List<InventoryItemDTO> startingInventory() {
+        return CharacterService.startingInventory(rpgClass, startingItems);
+    }
+}
@@ -0,0 +1,53 @@
+package com.rpg.charactercreator.service;
+
+import com.rpg.charactercreator.dto.ClassWithSkillsDTO;
+import com.rpg.charactercreator.model.RPGClass;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ⏱️ RPGClassService: klass -> ClassWithSkillsDTO och stat-taket. size = antal skills i klassen.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RPGClassServiceBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private RPGClassService classService;
+    private RPGClass rpgClass;
+
+    @Setup
+    public void setUp() {
+        classService = new RPGClassService(null, null);
+        rpgClass = BenchmarkFixtures.rpgClass(size);
+    }
+
+    @Benchmark
+    public ClassWithSkillsDTO toFullDTO() {
+        return classService.toFullDTO(rpgClass);
+    }
+
+    /** Idempotent efter första anropet, så varje iteration mäter samma arbete (läs + skriv sex stats). */
+    @Benchmark
+    public RPGClass capStats() {
+        RPGClassService.capStats(rpgClass);
+        return rpgClass;
+    }
+}
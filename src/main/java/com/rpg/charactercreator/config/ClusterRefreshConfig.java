@@ -0,0 +1,55 @@
+package com.rpg.charactercreator.config;
+
+import com.rpg.charactercreator.service.CharacterNameIndex;
+import com.rpg.charactercreator.service.ClassCatalogService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * 🔁 Multi-nod-läge (app.security.session-mode=stateless): varje nod har egna minnes-kopior av
+ * klasskatalogen (med ETag), klassnamns-indexet och karaktärsnamns-indexet, och en skrivning uppdaterar
+ * bara den nod som tog emot den. Här läses de om från databasen var app.cluster.refresh-interval,
+ * så andra noder serverar gammal katalog-/sökdata i högst ungefär ett intervall. Namn-indexet läser då bara
+ * nya/ändrade karaktärer; borttagna försvinner vid den fulla avstämningen var app.cluster.full-resync-interval.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.security.session-mode", havingValue = "stateless")
+public class ClusterRefreshConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterRefreshConfig.class);
+
+    private final ClassCatalogService catalogService;
+    private final CharacterNameIndex characterNameIndex;
+
+    public ClusterRefreshConfig(ClassCatalogService catalogService, CharacterNameIndex characterNameIndex) {
+        this.catalogService = catalogService;
+        this.characterNameIndex = characterNameIndex;
+    }
+
+    // Oförändrad katalog => samma bild och version, så ETags och cachade svar ligger kvar
+    @Scheduled(fixedDelayString = "${app.cluster.refresh-interval:30s}",
+            initialDelayString = "${app.cluster.refresh-interval:30s}")
+    void refreshClassCatalog() {
+        if (catalogService.refreshIfChanged()) {
+            log.info("Class catalog changed on another node; reloaded");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cluster.refresh-interval:30s}",
+            initialDelayString = "${app.cluster.refresh-interval:30s}")
+    void resyncChangedCharacterNames() {
+        characterNameIndex.resyncChanges();
+    }
+
+    // Full läsning av alla namn (fångar borttagna karaktärer), därför mycket glesare
+    @Scheduled(fixedDelayString = "${app.cluster.full-resync-interval:10m}",
+            initialDelayString = "${app.cluster.full-resync-interval:10m}")
+    void resyncAllCharacterNames() {
+        characterNameIndex.resync();
+    }
+}
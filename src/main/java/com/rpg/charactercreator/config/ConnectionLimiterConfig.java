@@ -0,0 +1,45 @@
+package com.rpg.charactercreator.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * 🚦 Lägger ConnectionLimitingDataSource framför connection-poolen och håller app.jdbc.limiter.reserved-connections
+ * anslutningar lediga åt id-tilldelningen (se IdSequences). Spärren går inte att stänga av: utan reserv kan
+ * poolen låsa sig under samtidiga inserts, så appen vägrar starta med en reserv under 1.
+ * Med virtuella trådar (spring.threads.virtual.enabled=true) finns ingen Tomcat-trådgräns alls, så där är det
+ * spärren som håller antalet samtidiga JDBC-användare inom poolen.
+ */
+@Configuration
+public class ConnectionLimiterConfig {
+
+    // static: BeanPostProcessor måste skapas innan övriga beans (t.ex. DataSource)
+    @Bean
+    static BeanPostProcessor connectionLimitingDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource) {
+                    return bean;
+                }
+                int poolSize = dataSource instanceof HikariDataSource hikari
+                        ? hikari.getMaximumPoolSize()
+                        : environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                int reserved = environment.getProperty("app.jdbc.limiter.reserved-connections", Integer.class, 2);
+                if (reserved < 1 || reserved >= poolSize) {
+                    throw new IllegalStateException("app.jdbc.limiter.reserved-connections must be between 1 and "
+                            + (poolSize - 1) + " (pool size " + poolSize + "), was " + reserved
+                            + ": pooled id generation fetches id blocks on a second connection");
+                }
+                Duration timeout = environment.getProperty("app.jdbc.limiter.acquire-timeout", Duration.class, Duration.ofSeconds(5));
+                return new ConnectionLimitingDataSource(dataSource, poolSize - reserved, timeout);
+            }
+        };
+    }
+}
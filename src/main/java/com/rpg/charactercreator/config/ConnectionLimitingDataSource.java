@@ -0,0 +1,128 @@
+package com.rpg.charactercreator.config;
+
+import com.rpg.charactercreator.dto.JdbcLimiterStatsDTO;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 🚦 Släpper bara in maxConnections samtidiga (yttre) anslutningar – poolens storlek minus en reserv.
+ * Reserven behövs för att pooled id:n (TABLE-generatorn mot id_sequences) hämtar nya id-block på en egen
+ * anslutning medan requestens anslutning hålls: utan reserv kan alla anslutningar hållas av requests som
+ * väntar på id-generatorn, och poolen låser sig. En tråd som redan har en anslutning går därför förbi
+ * spärren för sina nästlade anslutningar (id-block, REQUIRES_NEW) och tar dem ur reserven.
+ * Övriga väntar i en rättvis Semaphore, som parkerar virtuella trådar utan att låsa bärartråden, och får
+ * SQLTransientConnectionException efter acquireTimeout. Tillståndet lämnas tillbaka när anslutningen stängs.
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int maxConnections;
+    private final Duration acquireTimeout;
+
+    // Antal öppna anslutningar per tråd: > 0 => nästa anslutning är nästlad och går förbi spärren
+    private final ThreadLocal<AtomicInteger> openPerThread = ThreadLocal.withInitial(AtomicInteger::new);
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    public ConnectionLimitingDataSource(DataSource target, int maxConnections, Duration acquireTimeout) {
+        super(target);
+        this.permits = new Semaphore(maxConnections, true);
+        this.maxConnections = maxConnections;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return limit(() -> obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return limit(() -> obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /** Utlånade (yttre) anslutningar just nu. */
+    public int inUse() {
+        return maxConnections - permits.availablePermits();
+    }
+
+    /** Antal anslutningar i bruk, väntande trådar och hur många som gett upp. */
+    public JdbcLimiterStatsDTO stats() {
+        return new JdbcLimiterStatsDTO(
+                maxConnections,
+                inUse(),
+                permits.getQueueLength(),
+                acquired.sum(),
+                timedOut.sum());
+    }
+
+    private Connection limit(ConnectionSupplier supplier) throws SQLException {
+        AtomicInteger open = openPerThread.get();
+        boolean nested = open.get() > 0;
+        if (!nested) {
+            acquire();
+        }
+        try {
+            Connection connection = releaseOnClose(supplier.get(), open, !nested);
+            open.incrementAndGet();
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            if (!nested) permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                timedOut.increment();
+                throw new SQLTransientConnectionException(
+                        "No database connection available within " + acquireTimeout.toMillis() + " ms");
+            }
+            acquired.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    // Proxy runt anslutningen: close()/abort() räknar ned trådens räknare och lämnar tillbaka tillståndet
+    // (en gång, även om anslutningen stängs från en annan tråd); allt annat går rakt igenom
+    private Connection releaseOnClose(Connection target, AtomicInteger open, boolean holdsPermit) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.equals("equals")) return proxy == args[0];
+                    if (name.equals("hashCode")) return System.identityHashCode(proxy);
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    } finally {
+                        if ((name.equals("close") || name.equals("abort")) && released.compareAndSet(false, true)) {
+                            open.decrementAndGet();
+                            if (holdsPermit) permits.release();
+                        }
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
@@ -0,0 +1,53 @@
+package com.rpg.charactercreator.config;
+
+import com.rpg.charactercreator.model.IdSequences;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 🔢 Ser till att id_sequences ligger före befintliga id:n vid uppstart.
+ * Tabeller som skapades med IDENTITY (AUTO_INCREMENT) har redan rader, så varje sekvens
+ * lyfts till MAX(id) + 1 innan första insert. Körs efter att Hibernate uppdaterat schemat
+ * (beror på EntityManagerFactory), efter inventory-migreringen och innan webbservern tar emot requests.
+ */
+@Component
+@DependsOn("inventoryStackMigration")
+public class IdSequenceInitializer implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        IdSequences.ALL.forEach(this::seed);
+    }
+
+    private void seed(IdSequences.Sequence sequence) {
+        Long floor = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(" + sequence.idColumn() + "), 0) + 1 FROM " + sequence.table(), Long.class);
+        List<Long> current = jdbcTemplate.queryForList(
+                "SELECT " + IdSequences.VALUE_COLUMN + " FROM " + IdSequences.TABLE
+                        + " WHERE " + IdSequences.NAME_COLUMN + " = ?", Long.class, sequence.name());
+
+        if (current.isEmpty()) {
+            jdbcTemplate.update("INSERT INTO " + IdSequences.TABLE + " (" + IdSequences.NAME_COLUMN + ", "
+                    + IdSequences.VALUE_COLUMN + ") VALUES (?, ?)", sequence.name(), floor);
+        } else if (current.get(0) < floor) {
+            jdbcTemplate.update("UPDATE " + IdSequences.TABLE + " SET " + IdSequences.VALUE_COLUMN + " = ? WHERE "
+                    + IdSequences.NAME_COLUMN + " = ?", floor, sequence.name());
+            log.info("Raised id sequence '{}' from {} to {}", sequence.name(), current.get(0), floor);
+        }
+    }
+}
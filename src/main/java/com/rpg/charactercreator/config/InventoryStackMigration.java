@@ -0,0 +1,225 @@
+package com.rpg.charactercreator.config;
+
+import com.rpg.charactercreator.model.IdSequences;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 🎒 Flyttar inventory_item från en rad per föremål till staplar vid uppstart.
+ * Gamla rader har egna name/description-kolumner: varje (namn, beskrivning) blir en rad i
+ * item_definitions, och rader med samma karaktär + definition slås ihop till en stapel med
+ * quantity = antal rader. Därefter tas de gamla kolumnerna bort, så migreringen körs bara en gång.
+ * Körs efter att Hibernate uppdaterat schemat och före IdSequenceInitializer (som då ser de nya id:na).
+ * <p>
+ * Flera noder kan starta samtidigt: varje chunk (keyset på id) körs i en egen transaktion som först låser
+ * item_definitions-raden i id_sequences (SELECT ... FOR UPDATE) och kollar de gamla kolumnerna igen under låset.
+ * Samma lås tar Hibernate när det hämtar nya definitions-id:n, så id:n som delas ut här krockar inte med dem.
+ */
+@Component
+public class InventoryStackMigration implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryStackMigration.class);
+
+    static final int CHUNK_SIZE = 1_000;
+    private static final String SEQUENCE = "item_definitions";
+    private static final List<String> LEGACY_COLUMNS = List.of("name", "description");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    @Autowired
+    public InventoryStackMigration(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                   EntityManagerFactory entityManagerFactory) {
+        this(jdbcTemplate, transactionManager, CHUNK_SIZE);
+    }
+
+    InventoryStackMigration(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!hasLegacyColumns()) return;
+
+        ensureSequenceRow();
+        int migrated = 0;
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            List<Long> chunk = transactionTemplate.execute(status -> migrateChunk(from));
+            if (chunk == null || chunk.isEmpty()) break;
+            migrated += chunk.size();
+            afterId = chunk.get(chunk.size() - 1);
+        }
+        // DDL utanför transaktionen (MySQL committar ändå implicit vid ALTER TABLE, och släpper då låset).
+        // Inga gamla rader finns kvar, så en annan nod läser inte kolumnerna längre – men den kan hinna ta bort dem först
+        LEGACY_COLUMNS.forEach(this::dropLegacyColumn);
+        log.info("Migrated {} legacy inventory rows to stacks", migrated);
+    }
+
+    private boolean hasLegacyColumns() {
+        return hasColumn("name");
+    }
+
+    // Sekvensraden behövs som lås; skapas den samtidigt av en annan nod räcker deras rad
+    private void ensureSequenceRow() {
+        try {
+            jdbcTemplate.update("INSERT INTO " + IdSequences.TABLE + " (" + IdSequences.NAME_COLUMN + ", " + IdSequences.VALUE_COLUMN
+                    + ") SELECT ?, COALESCE(MAX(id), 0) + 1 FROM item_definitions WHERE NOT EXISTS (SELECT 1 FROM "
+                    + IdSequences.TABLE + " WHERE " + IdSequences.NAME_COLUMN + " = ?)", SEQUENCE, SEQUENCE);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Id sequence '{}' was created concurrently", SEQUENCE);
+        }
+    }
+
+    /**
+     * En chunk under låset: nästa (högst chunkSize) gamla rader efter afterId får definitioner och slås ihop
+     * med befintliga staplar. Returnerar de behandlade radernas id:n (tom = klart, även om en annan nod hann först).
+     */
+    private List<Long> migrateChunk(long afterId) {
+        long sequenceValue = jdbcTemplate.queryForObject("SELECT " + IdSequences.VALUE_COLUMN + " FROM " + IdSequences.TABLE
+                + " WHERE " + IdSequences.NAME_COLUMN + " = ? FOR UPDATE", Long.class, SEQUENCE);
+        if (!hasLegacyColumns()) return List.of();
+
+        List<LegacyRow> rows = jdbcTemplate.query(
+                "SELECT id, character_id, name, description FROM inventory_item WHERE definition_id IS NULL AND id > ? "
+                        + "ORDER BY id LIMIT ?",
+                (rs, n) -> new LegacyRow(rs.getLong("id"), rs.getLong("character_id"),
+                        valueOrEmpty(rs.getString("name")), valueOrEmpty(rs.getString("description"))),
+                afterId, chunkSize);
+        if (rows.isEmpty()) return List.of();
+
+        Map<String, Long> definitionIds = resolveDefinitions(rows, sequenceValue);
+
+        // Rader per karaktär + definition, i id-ordning
+        Map<StackKey, List<LegacyRow>> stacks = new LinkedHashMap<>();
+        for (LegacyRow row : rows) {
+            stacks.computeIfAbsent(new StackKey(row.characterId, definitionIds.get(key(row.name, row.description))),
+                    k -> new ArrayList<>()).add(row);
+        }
+
+        // Stapel som redan finns (från en tidigare chunk) får raderna som ökning; annars blir första raden stapeln
+        Map<StackKey, Long> existing = existingStacks(stacks.keySet());
+        List<Object[]> increments = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        stacks.forEach((stackKey, stack) -> {
+            Long stackId = existing.get(stackKey);
+            if (stackId != null) {
+                increments.add(new Object[]{stack.size(), stackId});
+                stack.forEach(row -> deletes.add(new Object[]{row.id}));
+            } else {
+                updates.add(new Object[]{stackKey.definitionId, stack.size(), stack.get(0).id});
+                stack.subList(1, stack.size()).forEach(row -> deletes.add(new Object[]{row.id}));
+            }
+        });
+        jdbcTemplate.batchUpdate("DELETE FROM inventory_item WHERE id = ?", deletes);
+        jdbcTemplate.batchUpdate("UPDATE inventory_item SET quantity = quantity + ? WHERE id = ?", increments);
+        jdbcTemplate.batchUpdate("UPDATE inventory_item SET definition_id = ?, quantity = ? WHERE id = ?", updates);
+        return rows.stream().map(LegacyRow::id).toList();
+    }
+
+    /**
+     * Definitions-id per nyckel för chunkens rader. Befintliga matchas skiftlägesokänsligt (som den unika
+     * nyckeln i MySQL); nya får id:n efter både tabellen och sekvensen, och sekvensen flyttas förbi dem med
+     * ett helt block marginal – så ett block som Hibernate redan delat ut (före eller efter värdet) aldrig överlappar.
+     */
+    private Map<String, Long> resolveDefinitions(List<LegacyRow> rows, long sequenceValue) {
+        Set<String> lowerNames = rows.stream().map(row -> row.name.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+        Map<String, Long> definitionIds = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name, description FROM item_definitions WHERE LOWER(name) IN ("
+                        + String.join(", ", Collections.nCopies(lowerNames.size(), "?")) + ") ORDER BY id",
+                rs -> {
+                    definitionIds.putIfAbsent(key(rs.getString("name"), rs.getString("description")), rs.getLong("id"));
+                }, lowerNames.toArray());
+
+        List<Object[]> newDefinitions = new ArrayList<>();
+        long nextId = Math.max(sequenceValue + 1,
+                jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM item_definitions", Long.class));
+        for (LegacyRow row : rows) {
+            String key = key(row.name, row.description);
+            if (!definitionIds.containsKey(key)) {
+                definitionIds.put(key, nextId);
+                newDefinitions.add(new Object[]{nextId++, row.name, row.description});
+            }
+        }
+        if (!newDefinitions.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO item_definitions (id, name, description) VALUES (?, ?, ?)", newDefinitions);
+            jdbcTemplate.update("UPDATE " + IdSequences.TABLE + " SET " + IdSequences.VALUE_COLUMN + " = ? WHERE "
+                    + IdSequences.NAME_COLUMN + " = ?", nextId + IdSequences.ALLOCATION_SIZE, SEQUENCE);
+        }
+        return definitionIds;
+    }
+
+    private Map<StackKey, Long> existingStacks(Set<StackKey> keys) {
+        Set<Long> characterIds = keys.stream().map(StackKey::characterId).collect(Collectors.toSet());
+        Set<Long> definitionIds = keys.stream().map(StackKey::definitionId).collect(Collectors.toSet());
+        List<Object> args = new ArrayList<>(characterIds);
+        args.addAll(definitionIds);
+
+        Map<StackKey, Long> existing = new HashMap<>();
+        jdbcTemplate.query("SELECT id, character_id, definition_id FROM inventory_item WHERE character_id IN ("
+                        + String.join(", ", Collections.nCopies(characterIds.size(), "?")) + ") AND definition_id IN ("
+                        + String.join(", ", Collections.nCopies(definitionIds.size(), "?")) + ")",
+                rs -> {
+                    StackKey key = new StackKey(rs.getLong("character_id"), rs.getLong("definition_id"));
+                    if (keys.contains(key)) existing.put(key, rs.getLong("id"));
+                }, args.toArray());
+        return existing;
+    }
+
+    // Kolumnen kan redan vara borttagen av en annan nod som migrerade samtidigt – det är samma slutläge
+    void dropLegacyColumn(String column) {
+        try {
+            jdbcTemplate.execute("ALTER TABLE inventory_item DROP COLUMN " + column);
+        } catch (DataAccessException e) {
+            if (hasColumn(column)) throw e;
+            log.debug("Legacy column inventory_item.{} was dropped concurrently", column);
+        }
+    }
+
+    private boolean hasColumn(String column) {
+        return Boolean.TRUE.equals(jdbcTemplate.query("SELECT * FROM inventory_item WHERE 1 = 0", rs -> {
+            ResultSetMetaData metaData = rs.getMetaData();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                if (column.equalsIgnoreCase(metaData.getColumnName(i))) return true;
+            }
+            return false;
+        }));
+    }
+
+    private static String key(String name, String description) {
+        return valueOrEmpty(name).toLowerCase(Locale.ROOT) + "\u0000" + valueOrEmpty(description).toLowerCase(Locale.ROOT);
+    }
+
+    private static String valueOrEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private record LegacyRow(long id, long characterId, String name, String description) { }
+
+    private record StackKey(long characterId, long definitionId) { }
+}
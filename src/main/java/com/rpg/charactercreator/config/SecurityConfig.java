@@ -1,25 +1,45 @@
 package com.rpg.charactercreator.config;
 
+import com.rpg.charactercreator.dto.TokenGrantRowDTO;
+import com.rpg.charactercreator.exception.PasswordHashingBusyException;
+import com.rpg.charactercreator.repository.UserRepository;
+import com.rpg.charactercreator.service.UserDetailsCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.context.SecurityContextHolderFilter;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository; //aktiverar csrf
 import org.springframework.security.web.csrf.CsrfFilter;
 import org.springframework.security.web.csrf.CsrfTokenRequestAttributeHandler;
 
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
     @Bean
-    SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    SecurityFilterChain filterChain(HttpSecurity http,
+                                    ObjectProvider<SignedCookieSecurityContextRepository> tokenRepository,
+                                    UserRepository users) throws Exception {
 
         // CSRF-token lagras i cookie (tillgänglig för frontend/axios)
         CookieCsrfTokenRepository csrfRepo = CookieCsrfTokenRepository.withHttpOnlyFalse();
@@ -44,7 +64,15 @@ public class SecurityConfig {
                         .usernameParameter("username")
                         .passwordParameter("password")
                         .successHandler((req, res, auth) -> res.setStatus(200))
-                        .failureHandler((req, res, ex) -> res.setStatus(401))
+                        .failureHandler((req, res, ex) -> {
+                            // Full BCrypt-pool => 503 så att klienten försöker igen, inte "fel lösenord"
+                            if (ex instanceof PasswordHashingBusyException) {
+                                res.setHeader("Retry-After", "1");
+                                res.setStatus(503);
+                            } else {
+                                res.setStatus(401);
+                            }
+                        })
                 )
                 // Utloggning
                 .logout(logout -> logout
@@ -62,12 +90,70 @@ public class SecurityConfig {
                 // Tillåter CORS (från AppConfig)
                 .cors(Customizer.withDefaults());
 
+        // 🍪 Stateless-läge: inloggningen bärs av en signerad cookie i stället för HttpSession
+        SignedCookieSecurityContextRepository tokens = tokenRepository.getIfAvailable();
+        if (tokens != null) {
+            http
+                    .securityContext(context -> context.securityContextRepository(tokens))
+                    .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                    // Glidande utgång + spärrkontroll innan behörigheterna prövas
+                    .addFilterAfter(new TokenRefreshFilter(tokens), SecurityContextHolderFilter.class)
+                    // Utloggning spärrar användarens alla tokens (även på andra enheter), inte bara den här cookien
+                    .logout(logout -> logout.addLogoutHandler((req, res, auth) -> {
+                        if (auth != null) users.incrementTokenVersion(auth.getName());
+                    }));
+        }
+
         return http.build();
     }
 
-    // Lösenord krypteras med BCrypt
+    // Signerade inloggnings-cookies (app.security.session-mode=stateless). Alla noder måste dela samma secret,
+    // annars underkänner de varandras cookies – saknas den startar appen inte. En slumpad nyckel som bara gäller
+    // den här noden (lokal utveckling, en nod) kräver app.security.token.allow-random-secret=true
+    @Bean
+    @ConditionalOnProperty(name = "app.security.session-mode", havingValue = "stateless")
+    SignedCookieSecurityContextRepository tokenRepository(
+            @Value("${app.security.token.secret:}") String secret,
+            @Value("${app.security.token.allow-random-secret:false}") boolean allowRandomSecret,
+            @Value("${app.security.token.ttl:30m}") Duration ttl,
+            @Value("${app.security.token.check-interval:1m}") Duration checkInterval,
+            @Value("${server.servlet.session.cookie.secure:false}") boolean secureCookie,
+            UserRepository users) {
+        byte[] key = secret.getBytes(StandardCharsets.UTF_8);
+        if (secret.isBlank()) {
+            if (!allowRandomSecret) {
+                throw new IllegalStateException("app.security.session-mode=stateless requires app.security.token.secret "
+                        + "(shared by all nodes); set app.security.token.allow-random-secret=true for a single dev node");
+            }
+            log.warn("app.security.token.secret is not set; using a random key valid only for this node");
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+        }
+        return new SignedCookieSecurityContextRepository(key, ttl, checkInterval, secureCookie, username -> {
+            List<TokenGrantRowDTO> rows = users.findTokenGrant(username);
+            if (rows.isEmpty()) return Optional.empty();
+            List<String> roles = rows.stream().map(TokenGrantRowDTO::getRole).filter(Objects::nonNull).toList();
+            return Optional.of(new SignedCookieSecurityContextRepository.Grant(rows.get(0).getTokenVersion(), roles));
+        });
+    }
+
+    // Inloggningscachen (UserDetails) töms bara på noden som ändrade användaren. I stateless-läge tar en
+    // annan nod annars emot gammalt lösenord eller raderat konto i upp till ttl, så där används stateless-ttl
+    @Bean
+    UserDetailsCache userDetailsCache(
+            @Value("${app.security.session-mode:session}") String sessionMode,
+            @Value("${app.security.user-cache.ttl:5m}") Duration ttl,
+            @Value("${app.security.user-cache.stateless-ttl:0s}") Duration statelessTtl) {
+        return new UserDetailsCache("stateless".equals(sessionMode) ? statelessTtl : ttl);
+    }
+
+    // Lösenord krypteras med BCrypt i en egen begränsad trådpool (app.security.password.*)
     @Bean
-    PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    BoundedPasswordEncoder passwordEncoder(
+            @Value("${app.security.password.bcrypt-strength:10}") int strength,
+            @Value("${app.security.password.threads:4}") int threads,
+            @Value("${app.security.password.queue-capacity:64}") int queueCapacity,
+            @Value("${app.security.password.timeout:2s}") Duration timeout) {
+        return new BoundedPasswordEncoder(strength, threads, queueCapacity, timeout);
     }
 }
\ No newline at end of file
@@ -0,0 +1,255 @@
+package com.rpg.charactercreator.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.DeferredSecurityContext;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.context.HttpRequestResponseHolder;
+import org.springframework.security.web.context.SecurityContextRepository;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * 🍪 Stateless inloggning: SecurityContext sparas som en HMAC-signerad cookie i stället för i HttpSession.
+ * Token: {@code base64url(användarnamn).base64url(roller).version.utfärdad.utgång.base64url(HMAC-SHA256)} –
+ * roller kommaseparerade, tider i epoch-sekunder, version = users.token_version vid utfärdandet.
+ * Verifieras med bara den delade nyckeln (ingen session, ingen databas), så alla noder med samma
+ * app.security.token.secret godtar varandras cookies.
+ * refresh() (TokenRefreshFilter) stämmer av en token som är äldre än checkInterval mot databasen och
+ * utfärdar en ny med aktuella roller och ny utgång (glidande ttl). Raderad, avstängd eller spärrad användare
+ * (ökad token_version, t.ex. vid utloggning) => cookien tas bort. Ändringar slår alltså igenom inom checkInterval.
+ */
+public class SignedCookieSecurityContextRepository implements SecurityContextRepository {
+
+    public static final String COOKIE_NAME = "AUTH_TOKEN";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * Aktuell token-version och roller för en aktiv användare; tom om användaren saknas eller är avstängd.
+     */
+    @FunctionalInterface
+    public interface GrantLookup {
+        Optional<Grant> find(String username);
+    }
+
+    /** Det en token utfärdas för: users.token_version och rollerna. */
+    public record Grant(int version, List<String> roles) { }
+
+    /** En verifierad (korrekt signerad, ej utgången) token. */
+    record Token(String username, List<String> roles, int version, long issuedAt, long expiresAt) { }
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Duration checkInterval;
+    private final boolean secureCookie;
+    private final GrantLookup grants;
+    private final LongSupplier clock; // epoch-millis
+
+    public SignedCookieSecurityContextRepository(byte[] secret, Duration ttl, Duration checkInterval, boolean secureCookie,
+                                                 GrantLookup grants) {
+        this(secret, ttl, checkInterval, secureCookie, grants, System::currentTimeMillis);
+    }
+
+    // Klockan kan bytas ut i tester
+    SignedCookieSecurityContextRepository(byte[] secret, Duration ttl, Duration checkInterval, boolean secureCookie,
+                                          GrantLookup grants, LongSupplier clock) {
+        if (secret.length < 32) {
+            throw new IllegalArgumentException("Token secret must be at least 32 bytes");
+        }
+        this.key = new SecretKeySpec(secret.clone(), ALGORITHM);
+        this.ttl = ttl;
+        this.checkInterval = checkInterval;
+        this.secureCookie = secureCookie;
+        this.grants = grants;
+        this.clock = clock;
+    }
+
+    /** Läser och verifierar cookien först när någon faktiskt frågar efter inloggningen. */
+    @Override
+    public DeferredSecurityContext loadDeferredContext(HttpServletRequest request) {
+        return new DeferredSecurityContext() {
+            private SecurityContext context;
+
+            @Override
+            public SecurityContext get() {
+                if (context == null) {
+                    Authentication authentication = readToken(request);
+                    context = SecurityContextHolder.createEmptyContext();
+                    context.setAuthentication(authentication);
+                }
+                return context;
+            }
+
+            @Override
+            public boolean isGenerated() {
+                return get().getAuthentication() == null;
+            }
+        };
+    }
+
+    @Override
+    @Deprecated
+    public SecurityContext loadContext(HttpRequestResponseHolder requestResponseHolder) {
+        return loadDeferredContext(requestResponseHolder.getRequest()).get();
+    }
+
+    /**
+     * Inloggning => ny token i cookien (med användarens aktuella token-version). Utloggning (tom context)
+     * => cookien tas bort.
+     */
+    @Override
+    public void saveContext(SecurityContext context, HttpServletRequest request, HttpServletResponse response) {
+        Authentication authentication = context.getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            if (cookieValue(request) != null) {
+                clearCookie(response);
+            }
+            return;
+        }
+        Optional<Grant> grant = grants.find(authentication.getName());
+        if (grant.isEmpty()) {
+            clearCookie(response);
+            return;
+        }
+        List<String> roles = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+        writeCookie(response, createToken(authentication.getName(), roles, grant.get().version()), ttl);
+    }
+
+    /**
+     * 🔁 Glidande utgång + spärrkontroll. En token som är äldre än checkInterval stäms av mot databasen
+     * (en query): finns användaren kvar, aktiv och med samma token-version får den en ny token med aktuella
+     * roller och ny utgång, och requestens inloggning byts mot den. Annars tas cookien bort och requesten
+     * körs som utloggad. Yngre tokens godtas utan databas.
+     */
+    public void refresh(HttpServletRequest request, HttpServletResponse response) {
+        Token token = readToken(cookieValue(request));
+        if (token == null || clock.getAsLong() / 1000 - token.issuedAt() < checkInterval.toSeconds()) {
+            return;
+        }
+        Optional<Grant> grant = grants.find(token.username()).filter(g -> g.version() == token.version());
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        if (grant.isEmpty()) {
+            clearCookie(response);
+        } else {
+            writeCookie(response, createToken(token.username(), grant.get().roles(), token.version()), ttl);
+            context.setAuthentication(authentication(token.username(), grant.get().roles()));
+        }
+        SecurityContextHolder.getContextHolderStrategy().setContext(context);
+    }
+
+    @Override
+    public boolean containsContext(HttpServletRequest request) {
+        return readToken(cookieValue(request)) != null;
+    }
+
+    /** Signerad token för användaren, utfärdad nu och giltig i ttl. */
+    String createToken(String username, List<String> roles, int version) {
+        long now = clock.getAsLong();
+        long issuedAt = now / 1000;
+        long expiresAt = (now + ttl.toMillis()) / 1000;
+        String payload = encode(username) + '.' + encode(String.join(",", roles)) + '.' + version + '.'
+                + issuedAt + '.' + expiresAt;
+        return payload + '.' + ENCODER.encodeToString(sign(payload));
+    }
+
+    /** Korrekt signerad och ej utgången token => inloggningen, annars null. */
+    Authentication readToken(HttpServletRequest request) {
+        Token token = readToken(cookieValue(request));
+        return token == null ? null : authentication(token.username(), token.roles());
+    }
+
+    private Token readToken(String value) {
+        if (value == null) return null;
+
+        String[] parts = value.split("\\.", -1);
+        if (parts.length != 6) return null;
+        try {
+            String payload = String.join(".", Arrays.copyOf(parts, 5));
+            if (!MessageDigest.isEqual(sign(payload), DECODER.decode(parts[5]))) return null;
+            long expiresAt = Long.parseLong(parts[4]);
+            if (expiresAt * 1000 <= clock.getAsLong()) return null;
+
+            String roles = decode(parts[1]);
+            return new Token(decode(parts[0]), roles.isEmpty() ? List.of() : List.of(roles.split(",")),
+                    Integer.parseInt(parts[2]), Long.parseLong(parts[3]), expiresAt);
+        } catch (IllegalArgumentException e) { // trasig base64, version eller tid
+            return null;
+        }
+    }
+
+    private static Authentication authentication(String username, List<String> roles) {
+        List<GrantedAuthority> authorities = roles.stream()
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+        UserDetails principal = User.withUsername(username).password("").authorities(authorities).build();
+        return UsernamePasswordAuthenticationToken.authenticated(principal, null, authorities);
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 not available", e);
+        }
+    }
+
+    private static String encode(String value) {
+        return ENCODER.encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String value) {
+        return new String(DECODER.decode(value), StandardCharsets.UTF_8);
+    }
+
+    private void clearCookie(HttpServletResponse response) {
+        writeCookie(response, "", Duration.ZERO);
+    }
+
+    private void writeCookie(HttpServletResponse response, String value, Duration maxAge) {
+        ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, value)
+                .httpOnly(true)           // inte åtkomlig via JS
+                .secure(secureCookie)
+                .sameSite("Lax")          // samma policy som JSESSIONID hade
+                .path("/")
+                .maxAge(maxAge)
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    private static String cookieValue(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) return null;
+        return Arrays.stream(cookies)
+                .filter(c -> COOKIE_NAME.equals(c.getName()) && !c.getValue().isEmpty())
+                .map(Cookie::getValue)
+                .findFirst()
+                .orElse(null);
+    }
+}
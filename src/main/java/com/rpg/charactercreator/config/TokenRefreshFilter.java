@@ -0,0 +1,34 @@
+package com.rpg.charactercreator.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+
+/**
+ * Filter som körs en gång per request i stateless-läge (direkt efter att inloggningen lästs in).
+ * Förnyar inloggnings-cookien vid aktivitet och loggar ut spärrade användare – se
+ * SignedCookieSecurityContextRepository.refresh().
+ */
+public class TokenRefreshFilter extends OncePerRequestFilter {
+
+    private final SignedCookieSecurityContextRepository tokens;
+
+    public TokenRefreshFilter(SignedCookieSecurityContextRepository tokens) {
+        this.tokens = tokens;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        tokens.refresh(request, response);
+
+        // Skicka vidare request/response i filterkedjan
+        filterChain.doFilter(request, response);
+    }
+}
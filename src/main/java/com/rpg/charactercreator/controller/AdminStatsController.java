@@ -0,0 +1,64 @@
+package com.rpg.charactercreator.controller;
+
+import com.rpg.charactercreator.config.BoundedPasswordEncoder;
+import com.rpg.charactercreator.config.ConnectionLimitingDataSource;
+import com.rpg.charactercreator.dto.CacheStatsDTO;
+import com.rpg.charactercreator.dto.JdbcLimiterStatsDTO;
+import com.rpg.charactercreator.dto.PasswordHashingStatsDTO;
+import com.rpg.charactercreator.service.CacheStatsService;
+import com.rpg.charactercreator.service.UserDetailsCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 📊 Driftstatistik för admins (bas-URL: /admin/stats).
+ * Skyddas av Spring Security: /admin/** kräver ROLE_ADMIN (se SecurityConfig).
+ */
+@RestController
+@RequestMapping("/admin/stats")
+public class AdminStatsController {
+
+    private final CacheStatsService cacheStatsService;
+    private final UserDetailsCache userDetailsCache;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final ObjectProvider<ConnectionLimitingDataSource> connectionLimiter;
+
+    public AdminStatsController(CacheStatsService cacheStatsService, UserDetailsCache userDetailsCache,
+                                BoundedPasswordEncoder passwordEncoder,
+                                ObjectProvider<ConnectionLimitingDataSource> connectionLimiter) {
+        this.cacheStatsService = cacheStatsService;
+        this.userDetailsCache = userDetailsCache;
+        this.passwordEncoder = passwordEncoder;
+        this.connectionLimiter = connectionLimiter;
+    }
+
+    /** 🗃️ GET /admin/stats/cache – träff/miss per second-level-cache-region och query-cachen (200 OK) */
+    @GetMapping("/cache")
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        return ResponseEntity.ok(cacheStatsService.secondLevelCacheStats());
+    }
+
+    /** 🔑 GET /admin/stats/user-details – träff/miss och träffkvot för inloggningscachen (200 OK) */
+    @GetMapping("/user-details")
+    public ResponseEntity<CacheStatsDTO> getUserDetailsCacheStats() {
+        return ResponseEntity.ok(userDetailsCache.stats());
+    }
+
+    /** 🔐 GET /admin/stats/password-hashing – kö-djup, avvisade anrop och latens i BCrypt-poolen (200 OK) */
+    @GetMapping("/password-hashing")
+    public ResponseEntity<PasswordHashingStatsDTO> getPasswordHashingStats() {
+        return ResponseEntity.ok(passwordEncoder.stats());
+    }
+
+    /** 🚦 GET /admin/stats/jdbc – anslutningsbegränsaren (200 OK), 404 om den saknas */
+    @GetMapping("/jdbc")
+    public ResponseEntity<JdbcLimiterStatsDTO> getJdbcLimiterStats() {
+        ConnectionLimitingDataSource limiter = connectionLimiter.getIfAvailable();
+        return limiter == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(limiter.stats());
+    }
+}
@@ -27,7 +27,7 @@ public class AuthController {
         return ResponseEntity.status(201).body(userService.toDTO(user));
     }
 
-    // Returnera den inloggade användaren (session-baserat)
+    // Returnera den inloggade användaren (från sessionen eller den signerade cookien)
     @GetMapping("/me")
     public ResponseEntity<UserDTO> me(Authentication authentication) {
         // Kolla om användaren är autentiserad
@@ -36,10 +36,9 @@ public class AuthController {
         }
         // Hämta användarnamn från authentication-objektet
         String username = authentication.getName();
-        // Hitta användare baserat på användarnamn eller kasta exception om ingen hittas
-        User user = userService.findByUsername(username)
+        // Hitta användaren som DTO (projektion) eller kasta exception om ingen hittas
+        UserDTO user = userService.findDTOByUsername(username)
                 .orElseThrow(() -> new UserNotFoundException("User with username: " + username + "does not exist."));
-        // Returnera användarens data som DTO
-        return ResponseEntity.ok(userService.toDTO(user));
+        return ResponseEntity.ok(user);
     }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.rpg.charactercreator.controller;
+
+import com.rpg.charactercreator.service.CatalogResponseCache;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * 🗜️ Bygger katalog-svar av färdiga bytes (CatalogResponseCache).
+ * Väljer gzip eller ren JSON utifrån Accept-Encoding, sätter ETag per variant och svarar 304
+ * när If-None-Match matchar. Bytes skrivs rakt ut av ByteArrayHttpMessageConverter – ingen Jackson.
+ */
+final class CatalogResponses {
+
+    private CatalogResponses() {
+    }
+
+    /**
+     * Kolla If-None-Match mot katalogens ETag för vald variant. Returnerar ETag:en om ett fullt
+     * svar behövs, annars null (då har 304 + ETag redan satts på requesten).
+     */
+    static String etagIfModified(String catalogETag, WebRequest request) {
+        String etag = acceptsGzip(request) ? catalogETag + "-gzip" : catalogETag;
+        return request.checkNotModified(etag) ? null : etag;
+    }
+
+    /**
+     * 200-svar med rätt variant. no-cache = webbläsaren får spara svaret men måste fråga
+     * (If-None-Match) varje gång, och ersätter Spring Securitys no-store.
+     */
+    static ResponseEntity<byte[]> ok(String etag, CatalogResponseCache.Body body, WebRequest request) {
+        boolean gzip = acceptsGzip(request);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        byte[] bytes = gzip ? body.gzip() : body.json();
+        return builder.contentLength(bytes.length).body(bytes);
+    }
+
+    /** Accepterar klienten gzip (och inte med q=0)? */
+    static boolean acceptsGzip(WebRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) return false;
+
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            if (tokens[0].trim().equalsIgnoreCase("gzip")) {
+                return tokens.length == 1 || !tokens[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,32 @@
+package com.rpg.charactercreator.controller;
+
+import com.rpg.charactercreator.service.CharacterService;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+
+/**
+ * 🔐 Behörighetskoll för endpoints som ändrar en karaktär (uppdatera, radera, inventory):
+ * ägaren eller admin. Admin kostar ingen query; ägaren högst en (se CharacterService.isOwner).
+ */
+final class CharacterAccess {
+
+    private CharacterAccess() {
+    }
+
+    /**
+     * Null om anropet får ändra karaktären, annars statusen att svara med (401/403).
+     * Kastar CharacterNotFoundException (404) om karaktären inte finns.
+     */
+    static HttpStatus denied(Long characterId, Authentication authentication, CharacterService characterService) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return HttpStatus.UNAUTHORIZED;
+        }
+
+        boolean isAdmin = authentication.getAuthorities().stream()
+                .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        if (isAdmin || characterService.isOwner(characterId, authentication.getName())) {
+            return null;
+        }
+        return HttpStatus.FORBIDDEN;
+    }
+}
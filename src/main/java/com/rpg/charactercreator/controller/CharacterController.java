@@ -1,18 +1,24 @@
 package com.rpg.charactercreator.controller;
 
+import com.rpg.charactercreator.dto.BulkCreateResultDTO;
 import com.rpg.charactercreator.dto.CharacterCreateDTO;
+import com.rpg.charactercreator.dto.CharacterCursorPageDTO;
 import com.rpg.charactercreator.dto.CharacterUpdateDTO;
 import com.rpg.charactercreator.dto.CharacterWithDetailsDTO;
-import com.rpg.charactercreator.model.Character;
+import com.rpg.charactercreator.dto.NameSuggestionDTO;
+import com.rpg.charactercreator.service.CharacterBulkService;
+import com.rpg.charactercreator.service.CharacterExportService;
 import com.rpg.charactercreator.service.CharacterService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
-import java.util.stream.Collectors;
 import org.springframework.security.core.Authentication;
 
 /**
@@ -25,10 +31,16 @@ import org.springframework.security.core.Authentication;
 public class CharacterController {
 
     private final CharacterService characterService;
+    private final CharacterExportService characterExportService;
+    private final CharacterBulkService characterBulkService;
 
     public CharacterController(CharacterService characterService,
+                               CharacterExportService characterExportService,
+                               CharacterBulkService characterBulkService,
                                com.rpg.charactercreator.service.UserService userService) {
         this.characterService = characterService;
+        this.characterExportService = characterExportService;
+        this.characterBulkService = characterBulkService;
     }
 
     /**
@@ -43,17 +55,30 @@ public class CharacterController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        String currentUsername = authentication.getName();
-
-        Character newChar = characterService.createCharacterForUsername(
-                dto,
-                currentUsername,
-                dto.getClassName(),
-                dto.getSkillIds() != null ? dto.getSkillIds() : List.of(),
-                dto.getStartingItems()
+        return ResponseEntity.status(HttpStatus.CREATED).body(
+                characterService.createCharacterWithDetailsForUsername(dto, authentication.getName())
         );
+    }
+
+    /**
+     * 📦 Skapar många karaktärer åt inloggad användare i en request (t.ex. vid import).
+     * Svarar med ett resultat per element: CREATED, REJECTED (valideringsfel) eller FAILED.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkCreateResultDTO>> createCharacters(
+            @RequestBody List<CharacterCreateDTO> dtos,
+            Authentication authentication
+    ) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (dtos.size() > CharacterBulkService.MAX_BULK_SIZE) {
+            return ResponseEntity.badRequest().build(); // 400 – för många på en gång
+        }
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(characterService.toDTO(newChar));
+        return ResponseEntity.ok(
+                characterBulkService.createCharactersForUsername(dtos, authentication.getName())
+        );
     }
 
     /**
@@ -67,25 +92,69 @@ public class CharacterController {
     }
 
     /**
-     * 🔍 Söker karaktärer på namn (case-insensitive).
+     * 📜 Hämtar karaktärer med cursor-paginering (keyset, ingen OFFSET).
+     * Första anropet: ?sort=name&direction=asc&size=20. Därefter: ?cursor={next från förra svaret}.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<CharacterCursorPageDTO> scrollCharacters(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(
+                characterService.scrollCharactersWithDetails(cursor, sort, direction, size)
+        );
+    }
+
+    /**
+     * 📤 Exporterar alla karaktärer som NDJSON (en rad per karaktär), strömmat direkt till svaret.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCharacters() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"characters.ndjson\"")
+                .body(characterExportService::exportAsNdjson);
+    }
+
+    /**
+     * 🔍 Söker karaktärer på namn (case-insensitive, delsträng), bäst rankade först.
      */
     @GetMapping("/search")
-    public ResponseEntity<List<CharacterWithDetailsDTO>> searchCharacters(@RequestParam String name) {
+    public ResponseEntity<List<CharacterWithDetailsDTO>> searchCharacters(
+            @RequestParam String name,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
         return ResponseEntity.ok(
-                characterService.searchByNameWithDetails(name)
+                characterService.searchByNameWithDetails(name, limit)
         );
     }
 
     /**
-     * 🔍 Hämtar alla karaktärer för en specifik användare.
+     * 🔤 Autocomplete: karaktärsnamn som börjar på prefix (bara id + namn).
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<NameSuggestionDTO>> suggestCharacters(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(characterService.suggestNames(prefix, limit));
+    }
+
+    /**
+     * 🔍 Hämtar karaktärer för en specifik användare (keyset-paginerat).
+     * Nästa sida hämtas med ?after={sista id}.
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<CharacterWithDetailsDTO>> getCharactersByUserId(@PathVariable Long userId) {
-        List<Character> characters = characterService.getCharactersByUserId(userId);
-        List<CharacterWithDetailsDTO> dtos = characters.stream()
-                .map(characterService::toDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<List<CharacterWithDetailsDTO>> getCharactersByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + CharacterService.MAX_PAGE_SIZE) int limit
+    ) {
+        return ResponseEntity.ok(
+                characterService.getCharactersWithDetailsByUserId(userId, after, limit)
+        );
     }
 
     /**
@@ -94,21 +163,9 @@ public class CharacterController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteCharacter(@PathVariable Long id, Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
-
-        boolean isAdmin = authentication.getAuthorities().stream()
-                .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
-
-        Character character = characterService.getById(id); // kastar 404 om ej finns
-
-        if (!isAdmin) {
-            String currentUsername = authentication.getName();
-            var owner = character.getUser();
-            if (owner == null || owner.getUsername() == null || !owner.getUsername().equals(currentUsername)) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-            }
+        HttpStatus denied = CharacterAccess.denied(id, authentication, characterService);
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
         }
 
         characterService.deleteById(id);
@@ -117,13 +174,19 @@ public class CharacterController {
 
     /**
      * ✏️ Uppdaterar data för en befintlig karaktär.
+     * Endast ägare eller admin kan uppdatera.
      */
     @PutMapping("/{id}")
     public ResponseEntity<CharacterWithDetailsDTO> updateCharacter(
             @PathVariable Long id,
-            @RequestBody CharacterUpdateDTO updateDTO
+            @RequestBody CharacterUpdateDTO updateDTO,
+            Authentication authentication
     ) {
-        Character updated = characterService.updateCharacter(id, updateDTO);
-        return ResponseEntity.ok(characterService.toDTO(updated));
+        HttpStatus denied = CharacterAccess.denied(id, authentication, characterService);
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
+        }
+
+        return ResponseEntity.ok(characterService.updateCharacterWithDetails(id, updateDTO));
     }
 }
\ No newline at end of file
@@ -1,16 +1,19 @@
 package com.rpg.charactercreator.controller;
 
 import com.rpg.charactercreator.dto.InventoryItemDTO;
+import com.rpg.charactercreator.model.InventoryItem;
 import com.rpg.charactercreator.service.CharacterService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
 /**
  * 🎒 InventoryController
- * Hanterar endpoints för att lägga till och hämta inventory-items för en karaktär.
+ * Hanterar endpoints för att lägga till, ta ut och hämta inventory-staplar för en karaktär.
+ * Ändringar kräver att man äger karaktären (eller är admin).
  */
 @RestController
 @RequestMapping("/characters/{characterId}/inventory") // Alla endpoints gäller för ett specifikt characterId
@@ -29,23 +32,82 @@ public class InventoryController {
      */
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED) // Returnerar 201 vid lyckad skapning
-    public ResponseEntity<Void> addItem(@PathVariable Long characterId, @RequestBody InventoryItemDTO itemDTO) {
-        // Enkel validering: namn får inte vara null eller tomt
-        if (itemDTO.getName() == null || itemDTO.getName().trim().isEmpty()) {
+    public ResponseEntity<Void> addItem(@PathVariable Long characterId, @RequestBody InventoryItemDTO itemDTO,
+                                        Authentication authentication) {
+        // Enkel validering: namn får inte vara null eller tomt, antal 1..MAX_QUANTITY
+        if (!isValid(itemDTO)) {
             return ResponseEntity.badRequest().build(); // 400 Bad Request
         }
 
+        HttpStatus denied = CharacterAccess.denied(characterId, authentication, characterService);
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
+        }
+
         characterService.addInventoryItem(characterId, itemDTO);
         return ResponseEntity.status(HttpStatus.CREATED).build(); // 201 Created
     }
 
+    /**
+     * ➕ POST /characters/{characterId}/inventory/batch
+     * Lägger till flera items i en karaktärs inventory i ett anrop (t.ex. loot efter en session).
+     * Alla items måste ha namn och antal 1..MAX_QUANTITY, annars sparas inget (400).
+     * Blir en stapel (befintlig + tillägg) större än MAX_QUANTITY sparas inget heller (400).
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<Void> addItems(@PathVariable Long characterId, @RequestBody List<InventoryItemDTO> itemDTOs,
+                                         Authentication authentication) {
+        if (itemDTOs == null || itemDTOs.isEmpty() || !itemDTOs.stream().allMatch(InventoryController::isValid)) {
+            return ResponseEntity.badRequest().build(); // 400 Bad Request
+        }
+
+        HttpStatus denied = CharacterAccess.denied(characterId, authentication, characterService);
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
+        }
+
+        characterService.addInventoryItems(characterId, itemDTOs);
+        return ResponseEntity.status(HttpStatus.CREATED).build(); // 201 Created
+    }
+
     /**
      * 📄 GET /characters/{characterId}/inventory
-     * Hämtar alla items i en karaktärs inventory.
+     * Hämtar en sida av karaktärens inventory (keyset-paginerat, standard 100 staplar).
+     * Nästa sida hämtas med ?after={sista id}.
      */
     @GetMapping
-    public ResponseEntity<List<InventoryItemDTO>> getInventory(@PathVariable Long characterId) {
-        List<InventoryItemDTO> inventory = characterService.getInventoryForCharacter(characterId);
+    public ResponseEntity<List<InventoryItemDTO>> getInventory(
+            @PathVariable Long characterId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        List<InventoryItemDTO> inventory = characterService.getInventoryForCharacter(characterId, after, limit);
         return ResponseEntity.ok(inventory); // 200 OK med inventory-listan
     }
+
+    /**
+     * ➖ DELETE /characters/{characterId}/inventory/{itemId}?quantity=1
+     * Tar ut quantity stycken ur en stapel; stapeln försvinner när den tar slut (204, 404 om den saknas,
+     * 409 om den har färre än quantity – då tas inget ut).
+     */
+    @DeleteMapping("/{itemId}")
+    public ResponseEntity<Void> removeItem(@PathVariable Long characterId, @PathVariable Long itemId,
+                                           @RequestParam(defaultValue = "1") int quantity,
+                                           Authentication authentication) {
+        if (quantity < 1) {
+            return ResponseEntity.badRequest().build(); // 400 Bad Request
+        }
+
+        HttpStatus denied = CharacterAccess.denied(characterId, authentication, characterService);
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
+        }
+
+        characterService.removeInventoryItem(characterId, itemId, quantity);
+        return ResponseEntity.noContent().build(); // 204 No Content
+    }
+
+    private static boolean isValid(InventoryItemDTO item) {
+        return item != null && item.getName() != null && !item.getName().trim().isEmpty()
+                && item.getQuantity() >= 1 && item.getQuantity() <= InventoryItem.MAX_QUANTITY;
+    }
 }
\ No newline at end of file
@@ -1,47 +1,74 @@
 package com.rpg.charactercreator.controller;
 
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import com.rpg.charactercreator.dto.ClassWithSkillsDTO;
-import com.rpg.charactercreator.dto.StartingItemDTO;
+import com.rpg.charactercreator.dto.BulkUpdateResultDTO;
+import com.rpg.charactercreator.dto.NameSuggestionDTO;
 import com.rpg.charactercreator.model.RPGClass;
+import com.rpg.charactercreator.service.CatalogResponseCache;
+import com.rpg.charactercreator.service.ClassCatalog;
+import com.rpg.charactercreator.service.ClassCatalogService;
 import com.rpg.charactercreator.service.RPGClassService;
 
 /**
  * 🧙 Controller för RPG-klasser (bas-URL: /classes).
  * OBS: POST/PUT/DELETE skyddas av Spring Security + CSRF (se SecurityConfig).
+ * GET-svaren från katalogen har en ETag (ur katalogens innehåll); If-None-Match som matchar ger 304
+ * direkt, utan databas och utan Jackson. Övriga GET-svar skrivs från färdiga (gzip-)bytes.
  */
 @RestController
 @RequestMapping("/classes")
 public class RPGClassController {
 
     private final RPGClassService classService;
+    private final ClassCatalogService catalogService;
+    private final CatalogResponseCache responseCache;
 
     /** DI av service-lagret */
-    public RPGClassController(RPGClassService classService) {
+    public RPGClassController(RPGClassService classService, ClassCatalogService catalogService,
+                              CatalogResponseCache responseCache) {
         this.classService = classService;
+        this.catalogService = catalogService;
+        this.responseCache = responseCache;
     }
 
-    /** 📄 GET /classes – lista alla klasser (200 OK) */
-    @GetMapping
-    public ResponseEntity<List<RPGClass>> getAllClasses() {
-        return ResponseEntity.ok(classService.findAll());
+    /** 📄 GET /classes – lista alla klasser (200 OK, 304 om ETag matchar) */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getAllClasses(WebRequest request) {
+        ClassCatalog catalog = catalogService.current();
+        String etag = CatalogResponses.etagIfModified(catalog.etag(), request);
+        if (etag == null) return null; // 304 – Spring skriver status + ETag
+
+        return CatalogResponses.ok(etag, responseCache.get(catalog, "classes", ClassCatalog::classes), request);
     }
 
-    /** 🔍 GET /classes/name/{name} – hämta klass + skills via namn (200/404) */
-    @GetMapping("/name/{name}")
-    public ResponseEntity<ClassWithSkillsDTO> getClassByName(@PathVariable String name) {
-        return classService.findByName(name)
-                .map(classService::toFullDTO)
-                .map(ResponseEntity::ok)
+    /** 🔍 GET /classes/name/{name} – hämta klass + skills via namn (200/404, 304 om ETag matchar) */
+    @GetMapping(value = "/name/{name}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getClassByName(@PathVariable String name, WebRequest request) {
+        ClassCatalog catalog = catalogService.current();
+        String etag = CatalogResponses.etagIfModified(catalog.etag(), request);
+        if (etag == null) return null;
+
+        return catalog.findByName(name)
+                .map(rpgClass -> responseCache.get(catalog, "class:" + name, c -> classService.toFullDTO(rpgClass)))
+                .map(body -> CatalogResponses.ok(etag, body, request))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /** 🔤 GET /classes/suggest?prefix= – autocomplete på klassnamn, bara id + namn (200 OK) */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<NameSuggestionDTO>> suggestClasses(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(classService.suggestNames(prefix, Math.clamp(limit, 1, 100)));
+    }
+
     /** ➕ POST /classes – skapa ny klass (201 Created) */
     @PostMapping
     public ResponseEntity<RPGClass> createClass(@RequestBody RPGClass rpgClass) {
@@ -54,63 +81,18 @@ public class RPGClassController {
      */
     @PutMapping("/{id}")
     public ResponseEntity<RPGClass> updateClass(@PathVariable Long id, @RequestBody RPGClass updatedClass) {
-        Optional<RPGClass> existingClassOpt = classService.findById(id);
-        if (existingClassOpt.isEmpty()) return ResponseEntity.notFound().build();
-
-        RPGClass existingClass = existingClassOpt.get();
-
-        // Selektiv uppdatering (låt null betyda "lämna oförändrat")
-        if (updatedClass.getName() != null) existingClass.setName(updatedClass.getName());
-        if (updatedClass.getDescription() != null) existingClass.setDescription(updatedClass.getDescription());
-        if (updatedClass.getArmorType() != null) existingClass.setArmorType(updatedClass.getArmorType());
-        if (updatedClass.getRole() != null) existingClass.setRole(updatedClass.getRole());
-        if (updatedClass.getWeapons() != null && !updatedClass.getWeapons().isEmpty()) {
-            existingClass.setWeapons(updatedClass.getWeapons());
-        }
-
-        // Bas-stats (om de är primitiva kan 0 tolkas som “sätt 0”)
-        existingClass.setStrength(updatedClass.getStrength());
-        existingClass.setDexterity(updatedClass.getDexterity());
-        existingClass.setIntelligence(updatedClass.getIntelligence());
-        existingClass.setConstitution(updatedClass.getConstitution());
-        existingClass.setWisdom(updatedClass.getWisdom());
-        existingClass.setCharisma(updatedClass.getCharisma());
-
-        return ResponseEntity.ok(classService.save(existingClass));
+        return classService.updateClass(id, updatedClass)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     /**
-     * ✏️ PUT /classes – batch-uppdatera flera klasser.
-     * Null-värden skrivs inte över. Returnerar 200 OK med sparade objekt.
+     * ✏️ PUT /classes – batch-uppdatera flera klasser i en transaktion.
+     * Null-värden skrivs inte över. Returnerar 200 OK med ett resultat per element (UPDATED/NOT_FOUND).
      */
     @PutMapping
-    public ResponseEntity<List<RPGClass>> updateClasses(@RequestBody List<RPGClass> updatedClasses) {
-        List<RPGClass> savedClasses = updatedClasses.stream()
-                .map(updated -> {
-                    Optional<RPGClass> existingOpt = classService.findById(updated.getClassId());
-                    if (existingOpt.isEmpty()) return null;
-
-                    RPGClass existing = existingOpt.get();
-                    if (updated.getName() != null) existing.setName(updated.getName());
-                    if (updated.getDescription() != null) existing.setDescription(updated.getDescription());
-                    if (updated.getArmorType() != null) existing.setArmorType(updated.getArmorType());
-                    if (updated.getRole() != null) existing.setRole(updated.getRole());
-                    if (updated.getWeapons() != null && !updated.getWeapons().isEmpty()) {
-                        existing.setWeapons(updated.getWeapons());
-                    }
-                    existing.setStrength(updated.getStrength());
-                    existing.setDexterity(updated.getDexterity());
-                    existing.setIntelligence(updated.getIntelligence());
-                    existing.setConstitution(updated.getConstitution());
-                    existing.setWisdom(updated.getWisdom());
-                    existing.setCharisma(updated.getCharisma());
-
-                    return classService.save(existing);
-                })
-                .filter(Objects::nonNull)
-                .toList();
-
-        return ResponseEntity.ok(savedClasses);
+    public ResponseEntity<List<BulkUpdateResultDTO>> updateClasses(@RequestBody List<RPGClass> updatedClasses) {
+        return ResponseEntity.ok(classService.updateClasses(updatedClasses));
     }
 
     /** ❌ DELETE /classes/{id} – ta bort klass (204 No Content eller 404) */
@@ -123,9 +105,17 @@ public class RPGClassController {
         return ResponseEntity.noContent().build();
     }
 
-    /** 🎒 GET /classes/name/{name}/starting-items – hämta startföremål för klass (200 OK) */
-    @GetMapping("/name/{name}/starting-items")
-    public ResponseEntity<List<StartingItemDTO>> getStartingItemsByClassName(@PathVariable String name) {
-        return ResponseEntity.ok(classService.getStartingItemsForClass(name));
+    /** 🎒 GET /classes/name/{name}/starting-items – hämta startföremål för klass (200 OK, 304 om ETag matchar) */
+    @GetMapping(value = "/name/{name}/starting-items", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getStartingItemsByClassName(@PathVariable String name, WebRequest request) {
+        ClassCatalog catalog = catalogService.current();
+        String etag = CatalogResponses.etagIfModified(catalog.etag(), request);
+        if (etag == null) return null;
+
+        // Bara kända klasser cachas (okända namn ger alltid samma tomma lista)
+        CatalogResponseCache.Body body = catalog.findByName(name).isPresent()
+                ? responseCache.get(catalog, "starting-items:" + name, c -> c.startingItemsFor(name))
+                : responseCache.get(catalog, "starting-items:none", c -> List.of());
+        return CatalogResponses.ok(etag, body, request);
     }
-}
\ No newline at end of file
+}
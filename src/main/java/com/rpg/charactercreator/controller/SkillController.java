@@ -1,9 +1,14 @@
 package com.rpg.charactercreator.controller;
 
 import com.rpg.charactercreator.model.Skill;
+import com.rpg.charactercreator.service.CatalogResponseCache;
+import com.rpg.charactercreator.service.ClassCatalog;
+import com.rpg.charactercreator.service.ClassCatalogService;
 import com.rpg.charactercreator.service.SkillService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -16,18 +21,28 @@ import java.util.List;
 public class SkillController {
 
     private final SkillService skillService; // Service-lager för logiken kring skills
+    private final ClassCatalogService catalogService; // katalog-bilden (ger ETag)
+    private final CatalogResponseCache responseCache; // färdiga JSON-/gzip-bytes per katalog-version
 
-    public SkillController(SkillService skillService) {
+    public SkillController(SkillService skillService, ClassCatalogService catalogService,
+                           CatalogResponseCache responseCache) {
         this.skillService = skillService; // injicerar service
+        this.catalogService = catalogService;
+        this.responseCache = responseCache;
     }
 
     /**
      * 📄 GET /skills
-     * Hämtar alla färdigheter från databasen.
+     * Hämtar alla färdigheter ur katalogen som färdiga bytes. Svarar 304 (utan body)
+     * om If-None-Match matchar katalogens ETag.
      */
-    @GetMapping
-    public ResponseEntity<List<Skill>> getAllSkills() {
-        return ResponseEntity.ok(skillService.findAll());
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getAllSkills(WebRequest request) {
+        ClassCatalog catalog = catalogService.current();
+        String etag = CatalogResponses.etagIfModified(catalog.etag(), request);
+        if (etag == null) return null; // 304 – Spring skriver status + ETag
+
+        return CatalogResponses.ok(etag, responseCache.get(catalog, "skills", ClassCatalog::skills), request);
     }
 
     /**
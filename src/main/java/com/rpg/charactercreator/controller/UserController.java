@@ -7,7 +7,6 @@ import org.springframework.web.bind.annotation.*;
 
 import com.rpg.charactercreator.dto.CharacterWithDetailsDTO;
 import com.rpg.charactercreator.dto.UserDTO;
-import com.rpg.charactercreator.model.Character;
 import com.rpg.charactercreator.model.User;
 import com.rpg.charactercreator.service.CharacterService;
 import com.rpg.charactercreator.service.UserService;
@@ -46,11 +45,7 @@ public class UserController {
      */
     @GetMapping
     public ResponseEntity<List<UserDTO>> getAllUsers() {
-        List<User> users = userService.findAll();
-        List<UserDTO> dtoList = users.stream()
-                .map(userService::toDTO)
-                .toList();
-        return ResponseEntity.ok(dtoList);
+        return ResponseEntity.ok(userService.findAllDTOs());
     }
 
     /**
@@ -59,13 +54,8 @@ public class UserController {
      */
     @PutMapping("/{id}")
     public ResponseEntity<UserDTO> updateUser(@PathVariable Long id, @RequestBody User updatedUser) {
-        return userService.findById(id)
-                .map(existingUser -> {
-                    existingUser.setUsername(updatedUser.getUsername());
-                    existingUser.setEmail(updatedUser.getEmail());
-                    User savedUser = userService.createUser(existingUser);
-                    return ResponseEntity.ok(userService.toDTO(savedUser));
-                })
+        return userService.updateUser(id, updatedUser.getUsername(), updatedUser.getEmail())
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -85,22 +75,23 @@ public class UserController {
      */
     @GetMapping("/email/{email}")
     public ResponseEntity<UserDTO> getUserByEmail(@PathVariable String email) {
-        return userService.findByEmail(email)
-                .map(userService::toDTO)
+        return userService.findDTOByEmail(email)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     /**
      * 🎭 GET /users/{userId}/characters
-     * Hämtar alla karaktärer kopplade till en viss användare.
+     * Hämtar karaktärer kopplade till en viss användare (keyset-paginerat via ?after=&limit=).
      */
     @GetMapping("/{userId}/characters")
-    public ResponseEntity<List<CharacterWithDetailsDTO>> getCharactersByUserId(@PathVariable Long userId) {
-        List<Character> characters = characterService.getCharactersByUserId(userId);
-        List<CharacterWithDetailsDTO> dtos = characters.stream()
-                .map(characterService::toDTO)
-                .toList();
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<List<CharacterWithDetailsDTO>> getCharactersByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + CharacterService.MAX_PAGE_SIZE) int limit
+    ) {
+        return ResponseEntity.ok(
+                characterService.getCharactersWithDetailsByUserId(userId, after, limit)
+        );
     }
 }
\ No newline at end of file
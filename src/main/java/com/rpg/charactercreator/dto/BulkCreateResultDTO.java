@@ -0,0 +1,27 @@
+package com.rpg.charactercreator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 📦 BulkCreateResultDTO
+ * Resultat för ett element i POST /characters/bulk.
+ * index pekar på positionen i request-listan så att klienten kan matcha svaret.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCreateResultDTO {
+
+    public static final String CREATED = "CREATED";
+    public static final String REJECTED = "REJECTED";
+    public static final String FAILED = "FAILED";
+
+    private int index;     // Position i request-listan
+    private String status; // CREATED, REJECTED (valideringsfel) eller FAILED (databasfel)
+    private Long id;       // ID för skapad karaktär (null om den inte skapades)
+    private String error;  // Felmeddelande vid REJECTED/FAILED
+}
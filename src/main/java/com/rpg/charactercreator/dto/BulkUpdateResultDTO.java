@@ -0,0 +1,25 @@
+package com.rpg.charactercreator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 📦 BulkUpdateResultDTO
+ * Resultat för ett element i PUT /classes (batch-uppdatering).
+ * index pekar på positionen i request-listan så att klienten kan matcha svaret.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateResultDTO {
+
+    public static final String UPDATED = "UPDATED";
+    public static final String NOT_FOUND = "NOT_FOUND";
+
+    private int index;     // Position i request-listan
+    private Long id;       // classId från requesten (null om det saknades)
+    private String status; // UPDATED eller NOT_FOUND
+}
@@ -0,0 +1,29 @@
+package com.rpg.charactercreator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 🗃️ CacheStatsDTO
+ * Träffar/missar för en cache (t.ex. en second-level-cache-region) sedan uppstart, med träffkvot.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDTO {
+
+    private String name;        // Regionens/cachens namn
+    private long hits;          // Antal träffar
+    private long misses;        // Antal missar (fick gå till databasen)
+    private long puts;          // Antal inlagda poster
+    private long size;          // Antal poster i minnet just nu (-1 = okänt)
+
+    /** Andel träffar av alla uppslag (0 om cachen inte använts än). */
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
@@ -26,6 +26,6 @@ public class CharacterCreateDTO {
     /** Lista med valda färdighets-ID:n (måste vara exakt 3) som definierar karaktärens förmågor. */
     private List<Long> skillIds;
 
-    /** Lista med valda startföremål (valbara av spelaren) som karaktären börjar med. */
+    /** Lista med valda startföremål (max 3, högst InventoryItem.MAX_QUANTITY per stapel) som karaktären börjar med. */
     private List<InventoryItemDTO> startingItems;
 }
\ No newline at end of file
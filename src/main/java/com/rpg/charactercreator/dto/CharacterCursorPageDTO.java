@@ -0,0 +1,23 @@
+package com.rpg.charactercreator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * 📜 CharacterCursorPageDTO
+ * En sida karaktärer från cursor-pagineringen (GET /characters/scroll).
+ * Skicka tillbaka {@code next} som ?cursor= för att hämta nästa sida; null betyder att listan är slut.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CharacterCursorPageDTO {
+
+    private List<CharacterWithDetailsDTO> content; // Karaktärerna på sidan
+    private String next;                           // Opak cursor till nästa sida (null = sista sidan)
+}
@@ -33,7 +33,7 @@ public class CharacterWithDetailsDTO {
     private int charisma;        // Social förmåga och charm
 
     // 🎒 Startföremål eller inventory för karaktären
-    private List<String> inventory;  // Lista med startföremålen
+    private List<String> inventory;  // En rad per stapel: "Potion", eller "Potion x3" när antalet är större än 1
 
     // 🔗 Kopplingar till andra entiteter
     private String className;    // Namn på karaktärens RPG-klass
@@ -12,8 +12,18 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class InventoryItemDTO {
 
+    /** Stapelns id (sätts i svar, ignoreras i requests) */
+    private Long id;
     /** Namnet på föremålet */
     private String name;
     /** Beskrivning av föremålet */
     private String description;
-}
\ No newline at end of file
+    /** Antal (1..InventoryItem.MAX_QUANTITY, standard 1) */
+    private int quantity = 1;
+
+    /** Ett enstaka föremål (quantity 1). */
+    public InventoryItemDTO(String name, String description) {
+        this.name = name;
+        this.description = description;
+    }
+}
@@ -0,0 +1,23 @@
+package com.rpg.charactercreator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 🚦 JdbcLimiterStatsDTO
+ * Läget i anslutningsbegränsaren framför connection-poolen.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class JdbcLimiterStatsDTO {
+
+    private int maxConnections; // Poolens maximum-pool-size minus reserverade anslutningar
+    private int inUse;          // Utlånade (yttre) anslutningar just nu
+    private int waiting;        // Trådar som väntar på en anslutning
+    private long acquired;      // Utlånade sedan uppstart
+    private long timedOut;      // Gav upp efter acquire-timeout
+}
@@ -0,0 +1,20 @@
+package com.rpg.charactercreator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 🔤 NameSuggestionDTO
+ * Minimal projektion (id + namn) som används av namn-indexen och autocomplete.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NameSuggestionDTO {
+
+    private Long id;     // ID för karaktären/klassen
+    private String name; // Namnet som visas i förslaget
+}
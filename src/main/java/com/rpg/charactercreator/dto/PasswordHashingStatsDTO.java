@@ -0,0 +1,28 @@
+package com.rpg.charactercreator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * ⏳ PasswordHashingStatsDTO
+ * Läget i BCrypt-poolen: kö, genomströmning, avvisade anrop och latens sedan uppstart.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PasswordHashingStatsDTO {
+
+    private int threads;               // Antal trådar i poolen
+    private int activeThreads;         // Trådar som hashar just nu
+    private int queueDepth;            // Väntande jobb i kön
+    private int queueCapacity;         // Max antal väntande jobb
+    private long completed;            // Avslutade hashningar/verifieringar
+    private long rejected;             // Avvisade direkt (kön full) => 503
+    private long timedOut;             // Väntade för länge => 503
+    private double avgQueueWaitMillis; // Snittid i kön
+    private double maxQueueWaitMillis; // Längsta tid i kön
+    private double avgHashMillis;      // Snittid för själva BCrypt-arbetet
+}
@@ -0,0 +1,21 @@
+package com.rpg.charactercreator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 🍪 TokenGrantRowDTO
+ * En rad per roll (role är null för en användare utan roller) för en aktiv användare:
+ * det som behövs för att utfärda eller förnya en inloggnings-token.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenGrantRowDTO {
+
+    private Integer tokenVersion; // users.token_version – ökas för att spärra utfärdade tokens
+    private String role;          // Rollens namn, t.ex. ROLE_USER
+}
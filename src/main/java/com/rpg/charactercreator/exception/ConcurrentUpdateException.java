@@ -0,0 +1,17 @@
+package com.rpg.charactercreator.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 🔁 ConcurrentUpdateException
+ * Kastas när en ändring fortfarande krockar (unik nyckel) med samtidiga requests efter alla omförsök.
+ * Returnerar automatiskt HTTP 409 Conflict – klienten kan försöka igen.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConcurrentUpdateException extends RuntimeException {
+
+    public ConcurrentUpdateException(Throwable cause) {
+        super("The request conflicted with a concurrent change. Please try again.", cause);
+    }
+}
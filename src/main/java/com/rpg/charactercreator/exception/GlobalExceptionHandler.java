@@ -42,23 +42,59 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex, HttpStatus.NOT_FOUND, "ClassNotFoundException");
     }
 
-    // 😱 Allmänt fel
+    // ❌ Föremål hittades inte i karaktärens inventory
+    @ExceptionHandler(InventoryItemNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleInventoryItemNotFound(InventoryItemNotFoundException ex) {
+        return buildErrorResponse(ex, HttpStatus.NOT_FOUND, "InventoryItemNotFoundException");
+    }
+
+    // 🔢 Stapeln skulle bli större än tillåtet
+    @ExceptionHandler(InvalidQuantityException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidQuantity(InvalidQuantityException ex) {
+        return buildErrorResponse(ex, HttpStatus.BAD_REQUEST, "InvalidQuantityException");
+    }
+
+    // 🔢 Uttaget är större än stapeln
+    @ExceptionHandler(InsufficientQuantityException.class)
+    public ResponseEntity<Map<String, Object>> handleInsufficientQuantity(InsufficientQuantityException ex) {
+        return buildErrorResponse(ex, HttpStatus.CONFLICT, "InsufficientQuantityException");
+    }
+
+    // 🔁 Krock med en samtidig ändring (unik nyckel) även efter omförsök – klienten kan försöka igen
+    @ExceptionHandler(ConcurrentUpdateException.class)
+    public ResponseEntity<Map<String, Object>> handleConcurrentUpdate(ConcurrentUpdateException ex) {
+        return buildErrorResponse(ex, HttpStatus.CONFLICT, "ConcurrentUpdateException");
+    }
+
+    // ⏳ Lösenords-poolen är full (t.ex. vid registrering) – försök igen strax
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<Map<String, Object>> handlePasswordHashingBusy(PasswordHashingBusyException ex) {
+        ResponseEntity<Map<String, Object>> response = buildErrorResponse(ex, HttpStatus.SERVICE_UNAVAILABLE, "PasswordHashingBusyException");
+        return ResponseEntity.status(response.getStatusCode()).header("Retry-After", "1").body(response.getBody());
+    }
+
+    // 😱 Allmänt fel – meddelandet (t.ex. SQL från databasen) loggas men skickas inte till klienten
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleOtherExceptions(Exception ex) {
-        return buildErrorResponse(ex, HttpStatus.INTERNAL_SERVER_ERROR, "Exception");
+        return buildErrorResponse(ex, HttpStatus.INTERNAL_SERVER_ERROR, "Exception", "Internal server error.");
     }
 
     /**
      * 🧱 Gemensam metod för att skapa en strukturerad felrespons.
      */
     private ResponseEntity<Map<String, Object>> buildErrorResponse(Exception ex, HttpStatus status, String errorType) {
+        return buildErrorResponse(ex, status, errorType, ex.getMessage());
+    }
+
+    private ResponseEntity<Map<String, Object>> buildErrorResponse(Exception ex, HttpStatus status, String errorType,
+                                                                   String message) {
 
         ex.printStackTrace(); // 🪵 Logga felet i IntelliJ-terminalen
 
         Map<String, Object> error = new HashMap<>();
         error.put("status", status.value());
         error.put("error", errorType);
-        error.put("message", ex.getMessage());
+        error.put("message", message);
         error.put("timestamp", LocalDateTime.now());
 
         return new ResponseEntity<>(error, status);
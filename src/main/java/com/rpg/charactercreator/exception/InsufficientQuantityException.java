@@ -0,0 +1,18 @@
+package com.rpg.charactercreator.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 🔢 InsufficientQuantityException
+ * Kastas när ett uttag begär fler föremål än stapeln innehåller (inget tas ut).
+ * Returnerar automatiskt HTTP 409 Conflict.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InsufficientQuantityException extends RuntimeException {
+
+    public InsufficientQuantityException(Long characterId, Long itemId, int requested) {
+        super("Inventory item with ID " + itemId + " of character " + characterId
+                + " holds fewer than " + requested + " items.");
+    }
+}
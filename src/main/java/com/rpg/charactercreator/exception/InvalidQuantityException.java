@@ -0,0 +1,17 @@
+package com.rpg.charactercreator.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 🔢 InvalidQuantityException
+ * Kastas när en stapel skulle få fler föremål än InventoryItem.MAX_QUANTITY.
+ * Är ett valideringsfel (IllegalArgumentException) och returnerar HTTP 400 Bad Request.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidQuantityException extends IllegalArgumentException {
+
+    public InvalidQuantityException(String itemName, int max) {
+        super("A stack of '" + itemName + "' can hold at most " + max + " items.");
+    }
+}
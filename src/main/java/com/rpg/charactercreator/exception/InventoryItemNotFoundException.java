@@ -0,0 +1,17 @@
+package com.rpg.charactercreator.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * ❌ InventoryItemNotFoundException
+ * Kastas när en inventory-stapel inte finns hos den angivna karaktären.
+ * Returnerar automatiskt HTTP 404 Not Found.
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class InventoryItemNotFoundException extends RuntimeException {
+
+    public InventoryItemNotFoundException(Long characterId, Long itemId) {
+        super("Inventory item with ID " + itemId + " not found for character " + characterId + ".");
+    }
+}
@@ -0,0 +1,16 @@
+package com.rpg.charactercreator.exception;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * ⏳ PasswordHashingBusyException
+ * Kastas när lösenords-poolen (BCrypt) är full eller inte hinner i tid.
+ * Ärver AuthenticationServiceException så att formulärinloggningen når failure-handlern;
+ * både den och GlobalExceptionHandler svarar 503 Service Unavailable med Retry-After.
+ */
+public class PasswordHashingBusyException extends AuthenticationServiceException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
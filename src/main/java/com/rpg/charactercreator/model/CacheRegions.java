@@ -0,0 +1,27 @@
+package com.rpg.charactercreator.model;
+
+import java.util.List;
+
+/**
+ * 🗃️ Namn på second-level-cache-regionerna (måste matcha ehcache.xml).
+ * Bara referensdata cachas: roller, klasser, skills, startföremål och föremålsdefinitioner
+ * samt deras samlingar.
+ */
+public final class CacheRegions {
+
+    public static final String ROLES = "roles";
+    public static final String RPG_CLASSES = "rpg_classes";
+    public static final String SKILLS = "skills";
+    public static final String STARTING_ITEMS = "starting_items";
+    public static final String ITEM_DEFINITIONS = "item_definitions";
+    public static final String RPG_CLASS_SKILLS = "rpg_class_skills";
+    public static final String RPG_CLASS_WEAPONS = "rpg_class_weapons";
+    public static final String USER_ROLES = "user_roles";
+
+    /** Alla entitets- och samlingsregioner (för statistik). */
+    public static final List<String> ALL = List.of(
+            ROLES, RPG_CLASSES, SKILLS, STARTING_ITEMS, ITEM_DEFINITIONS, RPG_CLASS_SKILLS, RPG_CLASS_WEAPONS, USER_ROLES);
+
+    private CacheRegions() {
+    }
+}
@@ -8,18 +8,28 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
 @Entity
-@Table(name = "characters") // Kopplas till tabellen "characters" i databasen
+@Table(name = "characters", // Kopplas till tabellen "characters" i databasen
+        indexes = {
+                @Index(name = "idx_characters_user_id", columnList = "user_id, id"), // Ägarens karaktärer i id-ordning
+                @Index(name = "idx_characters_name", columnList = "name, id"),       // Keyset-sortering på namn
+                @Index(name = "idx_characters_level", columnList = "level, id"),     // Keyset-sortering på level
+                @Index(name = "idx_characters_updated_at", columnList = "updated_at") // Ändringar sedan förra resyncen
+        })
 @Getter @Setter @NoArgsConstructor @Builder @AllArgsConstructor
 public class Character {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-ID från databasen
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "character_ids") // Pooled id från id_sequences (batch-inserts)
+    @TableGenerator(name = "character_ids", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = "characters", allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
 
     @NotBlank // Namn får inte vara tomt
@@ -28,6 +38,10 @@ public class Character {
     private String background; // Kort bakgrundsbeskrivning
     private int level = 1;     // Alla startar på level 1
 
+    @UpdateTimestamp // Sätts vid varje insert/update (nodens klocka); namn-indexet läser bara ändrade rader
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     // === ⚔️ Stats för spelet ===
     private int charisma;
     private int constitution;
@@ -0,0 +1,39 @@
+package com.rpg.charactercreator.model;
+
+import java.util.List;
+
+/**
+ * 🔢 Gemensamma inställningar för id-generering.
+ * Alla entiteter hämtar id:n i block om {@link #ALLOCATION_SIZE} från tabellen id_sequences
+ * (en rad per tabell). Till skillnad från IDENTITY vet Hibernate id:t innan INSERT,
+ * vilket gör att inserts kan skickas i JDBC-batchar.
+ * Obs: ett nytt block hämtas på en egen anslutning medan requestens anslutning hålls, så poolen
+ * måste ha anslutningar över till det – se ConnectionLimitingDataSource (app.jdbc.limiter.reserved-connections).
+ */
+public final class IdSequences {
+
+    public static final String TABLE = "id_sequences";
+    public static final String NAME_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    /**
+     * En sekvens: raden i id_sequences och tabellen/kolumnen vars id:n den delar ut.
+     */
+    public record Sequence(String name, String table, String idColumn) { }
+
+    /** Alla sekvenser (används för att seeda id_sequences över befintliga id:n). */
+    public static final List<Sequence> ALL = List.of(
+            new Sequence("characters", "characters", "id"),
+            new Sequence("inventory_item", "inventory_item", "id"),
+            new Sequence("item_definitions", "item_definitions", "id"),
+            new Sequence("skills", "skills", "id"),
+            new Sequence("rpgclass", "rpgclass", "class_id"),
+            new Sequence("users", "users", "user_id"),
+            new Sequence("roles", "roles", "id"),
+            new Sequence("starting_items", "starting_items", "id")
+    );
+
+    private IdSequences() {
+    }
+}
@@ -5,17 +5,32 @@ import lombok.Setter;
 
 import jakarta.persistence.*;
 
+/**
+ * 🎒 En stapel i en karaktärs inventory: ett föremål (ItemDefinition) och hur många av det.
+ * Varje karaktär har högst en stapel per definition; tillägg och uttag ändrar quantity.
+ */
 @Getter
 @Setter
 @Entity // Markeras som en databas-entitet
+@Table(name = "inventory_item",
+        uniqueConstraints = @UniqueConstraint(name = "uk_inventory_item_character_definition", columnNames = {"character_id", "definition_id"}),
+        indexes = @Index(name = "idx_inventory_item_character_id", columnList = "character_id, id")) // Keyset-sidor per karaktär
 public class InventoryItem {
 
+    /** Högsta antal i en stapel; större tillägg avvisas (400) i stället för att räkna över. */
+    public static final int MAX_QUANTITY = 9_999;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-ID i databasen
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "inventory_item_ids") // Pooled id från id_sequences (batch-inserts)
+    @TableGenerator(name = "inventory_item_ids", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = "inventory_item", allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
 
-    private String name;        // Namn på föremålet
-    private String description; // Kort beskrivning av föremålet
+    @ManyToOne(fetch = FetchType.LAZY) // Delad definition (namn + beskrivning), batch-laddas och cachas
+    @JoinColumn(name = "definition_id")
+    private ItemDefinition definition;
+
+    private int quantity = 1; // Antal i stapeln (1..MAX_QUANTITY, tomma staplar tas bort)
 
     @ManyToOne // Många items kan tillhöra en karaktär
     @JoinColumn(name = "character_id", nullable = false) // Koppling till Character-tabellen
@@ -24,10 +39,20 @@ public class InventoryItem {
     // Standardkonstruktor (krävs av JPA)
     public InventoryItem() {}
 
-    // Konstruktor för att snabbt skapa nya items
-    public InventoryItem(String name, String description, Character character) {
-        this.name = name;
-        this.description = description;
+    // Konstruktor för att snabbt skapa nya staplar
+    public InventoryItem(ItemDefinition definition, int quantity, Character character) {
+        this.definition = definition;
+        this.quantity = quantity;
         this.character = character;
     }
-}
\ No newline at end of file
+
+    /** Föremålets namn (från definitionen). */
+    public String getName() {
+        return definition != null ? definition.getName() : null;
+    }
+
+    /** Föremålets beskrivning (från definitionen). */
+    public String getDescription() {
+        return definition != null ? definition.getDescription() : null;
+    }
+}
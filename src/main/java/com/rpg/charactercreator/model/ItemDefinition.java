@@ -0,0 +1,40 @@
+package com.rpg.charactercreator.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+import lombok.*;
+
+/**
+ * 🏷️ Ett föremål (namn + beskrivning) som lagras en gång och delas av alla inventory-staplar.
+ * Definitioner ändras aldrig efter att de skapats (@Immutable, inga setters), därav READ_ONLY i second-level cachen.
+ * Saknad beskrivning lagras som "" så att den unika nyckeln (name, description) gäller även då.
+ */
+@Entity
+@Table(name = "item_definitions",
+        uniqueConstraints = @UniqueConstraint(name = "uk_item_definitions_name_description", columnNames = {"name", "description"}))
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = CacheRegions.ITEM_DEFINITIONS)
+@Immutable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemDefinition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "item_definition_ids") // Pooled id från id_sequences (batch-inserts)
+    @TableGenerator(name = "item_definition_ids", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = "item_definitions", allocationSize = IdSequences.ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private String description;
+
+    public ItemDefinition(String name, String description) {
+        this.name = name;
+        this.description = description;
+    }
+}
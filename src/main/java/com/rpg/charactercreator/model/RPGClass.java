@@ -1,6 +1,8 @@
 package com.rpg.charactercreator.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -10,13 +12,16 @@ import java.util.List;
 import java.util.Objects;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.RPG_CLASSES)
 @Getter
 @Setter
 @NoArgsConstructor
 public class RPGClass {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "rpgclass_ids") // Pooled id från id_sequences (batch-inserts)
+    @TableGenerator(name = "rpgclass_ids", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = "rpgclass", allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long classId;
     private String name;
     private String description;
@@ -28,11 +33,13 @@ public class RPGClass {
     private int charisma;
 
     @OneToMany(mappedBy = "rpgClass", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.RPG_CLASS_SKILLS)
     private List<Skill> skillList;
     private String armorType;
     private String role;
 
     @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.RPG_CLASS_WEAPONS)
     @CollectionTable(name = "class_weapons", joinColumns = @JoinColumn(name = "class_id"))
     @Column(name = "weapon")
     private List<String> weapons = new ArrayList<>();
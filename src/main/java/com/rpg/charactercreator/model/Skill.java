@@ -2,12 +2,15 @@ package com.rpg.charactercreator.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
 @Table(name = "skills")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.SKILLS)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -17,7 +20,9 @@ public class Skill {
      * Primary key för skill
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "skill_ids") // Pooled id från id_sequences (batch-inserts)
+    @TableGenerator(name = "skill_ids", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = "skills", allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
     private String name;
     private String description;
@@ -1,10 +1,13 @@
 package com.rpg.charactercreator.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.*;
 
 @Entity
 @Table(name = "starting_items")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.STARTING_ITEMS)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -12,7 +15,9 @@ import lombok.*;
 public class StartingItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "starting_item_ids") // Pooled id från id_sequences (batch-inserts)
+    @TableGenerator(name = "starting_item_ids", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = "starting_items", allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
     private String name;
     private String description;
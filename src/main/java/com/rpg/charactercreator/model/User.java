@@ -1,6 +1,8 @@
 package com.rpg.charactercreator.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -19,7 +21,9 @@ public class User {
 
     /** pk – auto generated id för varje user */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "user_ids") // Pooled id från id_sequences (batch-inserts)
+    @TableGenerator(name = "user_ids", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = "users", allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name = "user_id")
     private Long userId;
 
@@ -35,6 +39,7 @@ public class User {
     private boolean enabled = true;
 
     @ManyToMany(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USER_ROLES)
     @JoinTable(name = "users_roles",
             joinColumns = @JoinColumn(name = "user_id"),
             inverseJoinColumns = @JoinColumn(name = "role_id"))
@@ -42,6 +47,10 @@ public class User {
 
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    /** Ingår i stateless-tokens; ökas för att spärra alla utfärdade tokens (se UserRepository.incrementTokenVersion) */
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion = 0;
+
     @Override
     public String toString() {
         return "User{\n" +
@@ -1,11 +1,83 @@
 package com.rpg.charactercreator.repository;
 
+import com.rpg.charactercreator.dto.NameSuggestionDTO;
 import com.rpg.charactercreator.model.Character;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CharacterRepository extends JpaRepository<Character, Long> {
 
     List<Character> findByNameContainingIgnoreCase(String name);
-}
\ No newline at end of file
+
+    /**
+     * 🔍 Fallback-sökning (LIKE) med tak, används bara innan namn-indexet är laddat.
+     */
+    @EntityGraph(attributePaths = {"rpgClass", "user"})
+    List<Character> findByNameContainingIgnoreCaseOrderById(String name, Limit limit);
+
+    /**
+     * 🔍 Hämta karaktärer (med klass + ägare) för en lista id:n, t.ex. träffar från namn-indexet.
+     */
+    @EntityGraph(attributePaths = {"rpgClass", "user"})
+    List<Character> findByIdIn(Collection<Long> ids);
+
+    /**
+     * 🔤 Bara id + namn i id-ordning (keyset), för att bygga namn-indexet utan att ladda entiteter.
+     */
+    @Query("SELECT new com.rpg.charactercreator.dto.NameSuggestionDTO(c.id, c.name) FROM Character c "
+            + "WHERE c.id > :afterId ORDER BY c.id")
+    List<NameSuggestionDTO> findNamesAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * 🔤 Id + namn för karaktärer som är nyare än afterId eller ändrade sedan since (inkrementell resync av namn-indexet).
+     */
+    @Query("SELECT new com.rpg.charactercreator.dto.NameSuggestionDTO(c.id, c.name) FROM Character c "
+            + "WHERE c.id > :afterId OR c.updatedAt >= :since")
+    List<NameSuggestionDTO> findNamesChangedSince(@Param("afterId") Long afterId, @Param("since") LocalDateTime since);
+
+    /**
+     * 📄 Hämta en sida karaktärer med klass och ägare i samma SELECT.
+     * Samlingarna (skills, inventory, vapen) batch-laddas via hibernate.default_batch_fetch_size,
+     * så antalet queries per sida är konstant oavsett sidstorlek.
+     */
+    @EntityGraph(attributePaths = {"rpgClass", "user"})
+    @Query(value = "SELECT c FROM Character c", countQuery = "SELECT COUNT(c) FROM Character c")
+    Page<Character> findAllWithClassAndUser(Pageable pageable);
+
+    /**
+     * 🔍 Alla karaktärer för en ägare, i id-ordning (använder idx_characters_user_id).
+     */
+    List<Character> findByUserUserIdOrderByIdAsc(Long userId);
+
+    /**
+     * 🔍 Keyset-sida av en ägares karaktärer: nästa {@code limit} rader efter {@code afterId}.
+     * Kostnaden beror bara på sidans storlek, inte på hur många karaktärer som finns totalt.
+     */
+    @EntityGraph(attributePaths = {"rpgClass", "user"})
+    List<Character> findByUserUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long afterId, Limit limit);
+
+    /**
+     * 🔐 Ägs karaktären av användarnamnet? En existens-query på primärnyckeln + join mot users
+     * (unikt username), ingen entitet laddas.
+     */
+    boolean existsByIdAndUserUsername(Long id, String username);
+
+    /**
+     * 📜 Keyset-scroll över alla karaktärer (WHERE sorteringsnyckel > cursor ... LIMIT n).
+     * Lika snabb på sida 10 000 som på sida 1 eftersom ingen OFFSET används.
+     */
+    @EntityGraph(attributePaths = {"rpgClass", "user"})
+    Window<Character> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+}
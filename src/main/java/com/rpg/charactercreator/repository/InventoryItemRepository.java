@@ -1,18 +1,69 @@
 package com.rpg.charactercreator.repository;
 
+import com.rpg.charactercreator.dto.InventoryItemDTO;
 import com.rpg.charactercreator.model.InventoryItem;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
 
 /**
  * 📦 InventoryItemRepository
- * Repository för att hantera inventory-items kopplade till karaktärer.
+ * Repository för att hantera inventory-staplar kopplade till karaktärer.
  * Använder Spring Data JPA för att kommunicera med databasen.
  */
 public interface InventoryItemRepository extends JpaRepository<InventoryItem, Long> {
 
     /**
-     * 🔍 Hämta alla inventory-items som tillhör en specifik karaktär.
+     * 📄 Keyset-sida av en karaktärs inventory direkt som DTO:er: nästa {@code limit} staplar efter {@code afterId}.
+     * Bara stapel + definition läses (ingen join mot characters, inga entiteter i persistence contexten);
+     * indexet (character_id, id) gör kostnaden beroende av sidans storlek, inte av hela inventoryt.
+     */
+    @Query("SELECT new com.rpg.charactercreator.dto.InventoryItemDTO(i.id, d.name, d.description, i.quantity) "
+            + "FROM InventoryItem i JOIN i.definition d "
+            + "WHERE i.character.id = :characterId AND i.id > :afterId ORDER BY i.id")
+    List<InventoryItemDTO> findPageByCharacterId(@Param("characterId") Long characterId,
+                                                 @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * 🔍 Vilka av definitionerna har karaktären redan en stapel för? (en query, inga entiteter)
+     */
+    @Query("SELECT i.definition.id FROM InventoryItem i WHERE i.character.id = :characterId AND i.definition.id IN :definitionIds")
+    List<Long> findStackedDefinitionIds(@Param("characterId") Long characterId,
+                                        @Param("definitionIds") Collection<Long> definitionIds);
+
+    /**
+     * ➕ Öka en befintlig stapel atomiskt i databasen, men bara så länge den inte blir större än max.
+     * Returnerar antal påverkade rader (0 = stapeln saknas eller skulle bli för stor).
+     */
+    @Modifying
+    @Query("UPDATE InventoryItem i SET i.quantity = i.quantity + :amount " +
+            "WHERE i.character.id = :characterId AND i.definition.id = :definitionId AND i.quantity <= :max - :amount")
+    int addQuantity(@Param("characterId") Long characterId, @Param("definitionId") Long definitionId,
+                    @Param("amount") int amount, @Param("max") int max);
+
+    /**
+     * ➖ Minska en stapel atomiskt, men bara om det blir något kvar. Returnerar 0 om stapeln saknas eller är för liten.
+     */
+    @Modifying
+    @Query("UPDATE InventoryItem i SET i.quantity = i.quantity - :amount " +
+            "WHERE i.id = :id AND i.character.id = :characterId AND i.quantity > :amount")
+    int removeQuantity(@Param("characterId") Long characterId, @Param("id") Long id, @Param("amount") int amount);
+
+    /**
+     * ❌ Ta bort en stapel när uttaget tömmer den exakt (quantity = amount).
+     */
+    @Modifying
+    @Query("DELETE FROM InventoryItem i WHERE i.id = :id AND i.character.id = :characterId AND i.quantity = :amount")
+    int deleteStack(@Param("characterId") Long characterId, @Param("id") Long id, @Param("amount") int amount);
+
+    /**
+     * 🔍 Finns stapeln hos karaktären? (skiljer "för litet uttag" från "saknas" när uttaget inte träffade)
      */
-    List<InventoryItem> findByCharacterId(Long characterId);
-}
\ No newline at end of file
+    @Query("SELECT COUNT(i) > 0 FROM InventoryItem i WHERE i.id = :id AND i.character.id = :characterId")
+    boolean existsStack(@Param("characterId") Long characterId, @Param("id") Long id);
+}
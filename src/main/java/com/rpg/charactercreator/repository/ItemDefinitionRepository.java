@@ -0,0 +1,19 @@
+package com.rpg.charactercreator.repository;
+
+import com.rpg.charactercreator.model.ItemDefinition;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 🏷️ ItemDefinitionRepository
+ * Delade föremålsdefinitioner (namn + beskrivning) för inventory-staplar.
+ */
+public interface ItemDefinitionRepository extends JpaRepository<ItemDefinition, Long> {
+
+    /**
+     * 🔍 Alla definitioner med något av namnen (en query; beskrivningen matchas i minnet).
+     */
+    List<ItemDefinition> findByNameIn(Collection<String> names);
+}
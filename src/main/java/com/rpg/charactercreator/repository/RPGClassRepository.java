@@ -1,10 +1,13 @@
 package com.rpg.charactercreator.repository;
 
+import com.rpg.charactercreator.dto.NameSuggestionDTO;
 import com.rpg.charactercreator.model.RPGClass;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -22,6 +25,12 @@ public interface RPGClassRepository extends JpaRepository<RPGClass, Long> {
      */
     Optional<RPGClass> findByName(String name);
 
+    /**
+     * 🔍 Samma som findByName, men med skillList hämtad i samma query (för att validera valda skills).
+     */
+    @EntityGraph(attributePaths = "skillList")
+    Optional<RPGClass> findWithSkillsByName(String name);
+
     /**
      * 🔍 Hämta en RPG-klass med dess tillhörande färdigheter (skills) baserat på namn (case-insensitive).
      *
@@ -30,4 +39,16 @@ public interface RPGClassRepository extends JpaRepository<RPGClass, Long> {
      */
     @Query("SELECT c FROM RPGClass c LEFT JOIN FETCH c.skillList WHERE LOWER(c.name) = LOWER(:name)")
     Optional<RPGClass> findByNameWithSkills(@Param("name") String name);
-}
\ No newline at end of file
+
+    /**
+     * 📚 Hämta alla klasser med deras skills i en enda query (katalog-läsning).
+     */
+    @Query("SELECT DISTINCT c FROM RPGClass c LEFT JOIN FETCH c.skillList")
+    List<RPGClass> findAllWithSkills();
+
+    /**
+     * 🔤 Bara id + namn för alla klasser (för autocomplete-indexet).
+     */
+    @Query("SELECT new com.rpg.charactercreator.dto.NameSuggestionDTO(c.classId, c.name) FROM RPGClass c")
+    List<NameSuggestionDTO> findAllNames();
+}
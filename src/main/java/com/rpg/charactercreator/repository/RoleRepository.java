@@ -1,9 +1,13 @@
 package com.rpg.charactercreator.repository;
 
 import com.rpg.charactercreator.model.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import java.util.Optional;
 
 public interface RoleRepository extends JpaRepository<Role, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true")) // query-cache, rollerna ändras sällan
     Optional<Role> findByName(String name);
 }
\ No newline at end of file
@@ -1,9 +1,13 @@
 package com.rpg.charactercreator.repository;
 
+import com.rpg.charactercreator.dto.TokenGrantRowDTO;
+import com.rpg.charactercreator.dto.UserDTO;
 import com.rpg.charactercreator.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -25,6 +29,30 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByUsername(String username);
 
+    /**
+     * 📋 Alla användare som DTO (en query, varken lösenord eller roller laddas).
+     */
+    @Query("SELECT new com.rpg.charactercreator.dto.UserDTO(u.createdAt, u.username, u.email, u.userId) FROM User u ORDER BY u.userId")
+    List<UserDTO> findAllAsDTO();
+
+    /**
+     * 🔍 Användare som DTO via e-postadress (en query).
+     */
+    @Query("SELECT new com.rpg.charactercreator.dto.UserDTO(u.createdAt, u.username, u.email, u.userId) FROM User u WHERE u.email = :email")
+    Optional<UserDTO> findDTOByEmail(@Param("email") String email);
+
+    /**
+     * 🔍 Användare som DTO via användarnamn (en query).
+     */
+    @Query("SELECT new com.rpg.charactercreator.dto.UserDTO(u.createdAt, u.username, u.email, u.userId) FROM User u WHERE u.username = :username")
+    Optional<UserDTO> findDTOByUsername(@Param("username") String username);
+
+    /**
+     * 🔑 Bara id för ett användarnamn (laddar varken användaren eller dess roller).
+     */
+    @Query("SELECT u.userId FROM User u WHERE u.username = :username")
+    Optional<Long> findUserIdByUsername(@Param("username") String username);
+
     /**
      * ✅ Kontrollera om ett användarnamn redan finns (för registrering).
      */
@@ -52,4 +80,29 @@ public interface UserRepository extends JpaRepository<User, Long> {
             nativeQuery = true
     )
     List<User> findUsersWithMoreThanXCharacters(@Param("count") int count);
+
+    /**
+     * 🔐 Byt lösenordshash direkt i databasen (används när BCrypt-kostnaden uppgraderas vid inloggning).
+     * Returnerar antal uppdaterade rader.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+    int updatePasswordByUsername(@Param("username") String username, @Param("password") String password);
+
+    /**
+     * 🍪 Token-version och roller för en aktiv användare (en rad per roll, tom lista om användaren
+     * saknas eller är avstängd). Läses vid inloggning och när en stateless-token förnyas.
+     */
+    @Query("SELECT new com.rpg.charactercreator.dto.TokenGrantRowDTO(u.tokenVersion, r.name) "
+            + "FROM User u LEFT JOIN u.roles r WHERE u.username = :username AND u.enabled = true")
+    List<TokenGrantRowDTO> findTokenGrant(@Param("username") String username);
+
+    /**
+     * 🚫 Spärra alla utfärdade tokens för användaren (utloggning, namnbyte, roll- eller lösenordsbyte).
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.username = :username")
+    int incrementTokenVersion(@Param("username") String username);
 }
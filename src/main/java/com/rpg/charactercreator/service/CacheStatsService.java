@@ -0,0 +1,44 @@
+package com.rpg.charactercreator.service;
+
+import com.rpg.charactercreator.dto.CacheStatsDTO;
+import com.rpg.charactercreator.model.CacheRegions;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 🗃️ Läser träff/miss-statistik för Hibernates second-level cache och query-cache.
+ * Kräver hibernate.generate_statistics=true (annars är alla värden 0).
+ */
+@Service
+public class CacheStatsService {
+
+    /** Namnet som query-cachen redovisas under. */
+    public static final String QUERY_CACHE = "query-cache";
+
+    private final Statistics statistics;
+
+    public CacheStatsService(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * En rad per second-level-cache-region plus en rad för query-cachen.
+     */
+    public List<CacheStatsDTO> secondLevelCacheStats() {
+        List<CacheStatsDTO> stats = new ArrayList<>();
+        for (String region : CacheRegions.ALL) {
+            CacheRegionStatistics regionStats = statistics.getDomainDataRegionStatistics(region);
+            stats.add(new CacheStatsDTO(region, regionStats.getHitCount(), regionStats.getMissCount(),
+                    regionStats.getPutCount(), regionStats.getElementCountInMemory()));
+        }
+        stats.add(new CacheStatsDTO(QUERY_CACHE, statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount(), -1));
+        return stats;
+    }
+}
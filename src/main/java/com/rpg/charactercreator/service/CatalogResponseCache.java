@@ -0,0 +1,65 @@
+package com.rpg.charactercreator.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 🗜️ Färdigserialiserade katalog-svar: JSON-bytes + gzip-bytes per resurs, per katalog-version.
+ * Första anropet för en resurs serialiserar (Jackson) och komprimerar en gång; därefter
+ * återanvänds samma byte-arrayer tills katalogen byts (ny version => allt byggs om vid behov).
+ * Nycklarna kommer bara från katalogen (t.ex. "classes", "class:mage"), så cachen är begränsad.
+ */
+@Component
+public class CatalogResponseCache {
+
+    /** Ett färdigt svar i båda varianterna. Arrayerna delas – skriv aldrig i dem. */
+    public record Body(byte[] json, byte[] gzip) { }
+
+    private record Generation(long version, Map<String, Body> bodies) { }
+
+    private final ObjectMapper objectMapper;
+    private volatile Generation generation = new Generation(Long.MIN_VALUE, new ConcurrentHashMap<>());
+
+    public CatalogResponseCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Svaret för key i given katalog-bild; value anropas bara om det inte redan finns.
+     */
+    public Body get(ClassCatalog catalog, String key, Function<ClassCatalog, ?> value) {
+        Generation current = generation;
+        if (catalog.version() < current.version()) {
+            return serialize(value.apply(catalog)); // en läsare med en äldre bild – cacha inte
+        }
+        if (catalog.version() > current.version()) {
+            current = new Generation(catalog.version(), new ConcurrentHashMap<>());
+            generation = current;
+        }
+        return current.bodies().computeIfAbsent(key, k -> serialize(value.apply(catalog)));
+    }
+
+    private Body serialize(Object value) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            return new Body(json, compressed.toByteArray());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize catalog response", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
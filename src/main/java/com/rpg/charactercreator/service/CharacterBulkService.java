@@ -0,0 +1,171 @@
+package com.rpg.charactercreator.service;
+
+import com.rpg.charactercreator.dto.BulkCreateResultDTO;
+import com.rpg.charactercreator.dto.CharacterCreateDTO;
+import com.rpg.charactercreator.dto.InventoryItemDTO;
+import com.rpg.charactercreator.exception.UserNotFoundException;
+import com.rpg.charactercreator.model.Character;
+import com.rpg.charactercreator.model.InventoryItem;
+import com.rpg.charactercreator.model.ItemDefinition;
+import com.rpg.charactercreator.model.RPGClass;
+import com.rpg.charactercreator.model.Skill;
+import com.rpg.charactercreator.model.User;
+import com.rpg.charactercreator.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 📦 Skapar många karaktärer på en gång (POST /characters/bulk).
+ * Alla element valideras mot katalog-bilden i minnet (klasser + skills), och de giltiga
+ * skrivs sedan med JDBC-batchar (hibernate.jdbc.batch_size) för characters, character_skills
+ * item_definitions och inventory_item (staplar). Varje chunk är en egen transaktion: misslyckas den
+ * får chunkens element FAILED, medan tidigare chunkar redan är sparade.
+ */
+@Service
+public class CharacterBulkService {
+
+    /** Max antal karaktärer per request. */
+    public static final int MAX_BULK_SIZE = 10_000;
+    private static final int CHUNK_SIZE = 500;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final ClassCatalogService catalogService;
+    private final ItemDefinitionService itemDefinitionService;
+    private final CharacterNameIndex characterNameIndex;
+
+    public CharacterBulkService(
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            UserRepository userRepository,
+            ClassCatalogService catalogService,
+            ItemDefinitionService itemDefinitionService,
+            CharacterNameIndex characterNameIndex) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userRepository = userRepository;
+        this.catalogService = catalogService;
+        this.itemDefinitionService = itemDefinitionService;
+        this.characterNameIndex = characterNameIndex;
+    }
+
+    /**
+     * Validerar och skapar alla karaktärer åt användaren. Returnerar ett resultat per element.
+     */
+    public List<BulkCreateResultDTO> createCharactersForUsername(List<CharacterCreateDTO> dtos, String username) {
+        Long userId = userRepository.findUserIdByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException("No user with username: " + username));
+
+        // Samma katalog-bild för hela requesten
+        ClassCatalog catalog = catalogService.current();
+
+        BulkCreateResultDTO[] results = new BulkCreateResultDTO[dtos.size()];
+        List<PendingCharacter> valid = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            try {
+                valid.add(validate(i, dtos.get(i), catalog));
+            } catch (IllegalArgumentException e) {
+                results[i] = new BulkCreateResultDTO(i, BulkCreateResultDTO.REJECTED, null, e.getMessage());
+            }
+        }
+
+        for (int from = 0; from < valid.size(); from += CHUNK_SIZE) {
+            List<PendingCharacter> chunk = valid.subList(from, Math.min(from + CHUNK_SIZE, valid.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> insertChunk(chunk, userId));
+                chunk.forEach(p -> results[p.index] =
+                        new BulkCreateResultDTO(p.index, BulkCreateResultDTO.CREATED, p.id, null));
+            } catch (DataAccessException | PersistenceException e) {
+                // flush() i en vanlig @Service översätts inte av Spring => även råa JPA/Hibernate-fel
+                String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                chunk.forEach(p -> results[p.index] =
+                        new BulkCreateResultDTO(p.index, BulkCreateResultDTO.FAILED, null, message));
+            }
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Samma regler som vid vanligt skapande: klassen måste finnas, 3 tillåtna skills, max 3 startföremål.
+     */
+    private PendingCharacter validate(int index, CharacterCreateDTO dto, ClassCatalog catalog) {
+        if (dto == null || dto.getName() == null || dto.getName().isBlank()) {
+            throw new IllegalArgumentException("Character name is required.");
+        }
+        RPGClass rpgClass = catalog.findByName(dto.getClassName()).orElse(null);
+        if (rpgClass == null) {
+            throw new IllegalArgumentException("Class with name '" + dto.getClassName() + "' not found.");
+        }
+        CharacterService.validateSkillSelection(rpgClass, dto.getSkillIds());
+        List<InventoryItemDTO> items = CharacterService.startingInventory(rpgClass, dto.getStartingItems());
+        return new PendingCharacter(index, dto, rpgClass, items);
+    }
+
+    /**
+     * Skriver en chunk: karaktärerna, deras skills och deras inventory. Id:n kommer från
+     * id_sequences i block, så Hibernate kan skicka alla inserts i JDBC-batchar (sorterade per tabell).
+     * Klass, ägare och skills binds via referenser – inga extra SELECTs.
+     */
+    private void insertChunk(List<PendingCharacter> chunk, Long userId) {
+        User owner = entityManager.getReference(User.class, userId);
+        // Alla föremålsdefinitioner för chunken på en gång (en SELECT, nya skrivs i batchen)
+        Map<ItemDefinitionService.Key, ItemDefinition> definitions = itemDefinitionService.resolve(chunk.stream()
+                .flatMap(p -> p.items.stream())
+                .map(ItemDefinitionService.Key::of)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+        for (PendingCharacter p : chunk) {
+            RPGClass c = p.rpgClass;
+            Character character = new Character();
+            character.setName(p.dto.getName());
+            character.setBackground(p.dto.getBackground());
+            character.setLevel(1);
+            character.setUser(owner);
+            character.setRpgClass(entityManager.getReference(RPGClass.class, c.getClassId()));
+            character.setStrength(c.getStrength());
+            character.setDexterity(c.getDexterity());
+            character.setIntelligence(c.getIntelligence());
+            character.setConstitution(c.getConstitution());
+            character.setWisdom(c.getWisdom());
+            character.setCharisma(c.getCharisma());
+            character.setSkills(p.dto.getSkillIds().stream()
+                    .map(skillId -> entityManager.getReference(Skill.class, skillId))
+                    .collect(Collectors.toList()));
+            entityManager.persist(character);
+
+            ItemDefinitionService.stack(p.items, definitions).forEach((definition, quantity) ->
+                    entityManager.persist(new InventoryItem(definition, quantity, character)));
+            p.id = character.getId();
+            characterNameIndex.put(p.id, p.dto.getName());
+        }
+        entityManager.flush();
+        entityManager.clear(); // håll persistence context liten mellan chunkarna
+    }
+
+    /** Ett validerat element som väntar på att skrivas. */
+    private static final class PendingCharacter {
+        private final int index;
+        private final CharacterCreateDTO dto;
+        private final RPGClass rpgClass;
+        private final List<InventoryItemDTO> items;
+        private Long id;
+
+        private PendingCharacter(int index, CharacterCreateDTO dto, RPGClass rpgClass, List<InventoryItemDTO> items) {
+            this.index = index;
+            this.dto = dto;
+            this.rpgClass = rpgClass;
+            this.items = items;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.rpg.charactercreator.service;
+
+import com.rpg.charactercreator.dto.CharacterWithDetailsDTO;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 🔖 Cursor för keyset-paginering av karaktärer.
+ * Innehåller sorteringsnyckel, riktning samt sista radens sorteringsvärde + id,
+ * och serialiseras till en opak base64url-sträng som klienten skickar tillbaka.
+ */
+final class CharacterCursor {
+
+    /** Tillåtna sorteringsnycklar (alla har ett index tillsammans med id). */
+    static final List<String> SORT_KEYS = List.of("id", "name", "level");
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final String sortKey;
+    private final Sort.Direction direction;
+    private final Long lastId;
+    private final String lastValue; // null för första sidan
+
+    private CharacterCursor(String sortKey, Sort.Direction direction, Long lastId, String lastValue) {
+        this.sortKey = sortKey;
+        this.direction = direction;
+        this.lastId = lastId;
+        this.lastValue = lastValue;
+    }
+
+    /**
+     * Första sidan för en viss sortering.
+     */
+    static CharacterCursor start(String sortKey, Sort.Direction direction) {
+        if (!SORT_KEYS.contains(sortKey)) {
+            throw new IllegalArgumentException("Unsupported sort key '" + sortKey + "'. Allowed: " + SORT_KEYS);
+        }
+        return new CharacterCursor(sortKey, direction, null, null);
+    }
+
+    /**
+     * Cursor som pekar direkt efter den givna (sista) karaktären på en sida.
+     */
+    CharacterCursor after(CharacterWithDetailsDTO last) {
+        String value = switch (sortKey) {
+            case "name" -> last.getName();
+            case "level" -> String.valueOf(last.getLevel());
+            default -> null;
+        };
+        return new CharacterCursor(sortKey, direction, last.getId(), value);
+    }
+
+    /**
+     * Avkodar en cursor-sträng från klienten (format: sortKey|riktning|id|värde).
+     */
+    static CharacterCursor decode(String token) {
+        try {
+            String[] parts = new String(DECODER.decode(token), StandardCharsets.UTF_8).split("\\|", 4);
+            CharacterCursor start = start(parts[0], Sort.Direction.valueOf(parts[1]));
+            return new CharacterCursor(start.sortKey, start.direction, Long.valueOf(parts[2]), parts[3]);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor.", e);
+        }
+    }
+
+    String encode() {
+        String raw = sortKey + "|" + direction.name() + "|" + lastId + "|" + (lastValue != null ? lastValue : "");
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Sortering: vald nyckel + id som tie-breaker så att ordningen alltid är stabil.
+     */
+    Sort sort() {
+        Sort byId = Sort.by(direction, "id");
+        return "id".equals(sortKey) ? byId : Sort.by(direction, sortKey).and(byId);
+    }
+
+    /**
+     * Keyset-position för Spring Data (WHERE (key, id) > (lastValue, lastId)).
+     */
+    KeysetScrollPosition position() {
+        if (lastId == null) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        switch (sortKey) {
+            case "name" -> keys.put("name", lastValue);
+            case "level" -> keys.put("level", Integer.valueOf(lastValue));
+            default -> { }
+        }
+        keys.put("id", lastId);
+        return ScrollPosition.forward(keys);
+    }
+}
@@ -0,0 +1,89 @@
+package com.rpg.charactercreator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.rpg.charactercreator.dto.CharacterWithDetailsDTO;
+import com.rpg.charactercreator.model.Character;
+import com.rpg.charactercreator.repository.CharacterRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * 📤 Export av alla karaktärer som NDJSON (en JSON-rad per karaktär).
+ * Läser tabellen framåt i id-ordning, en chunk i taget i egen läs-transaktion,
+ * och skriver varje chunk direkt till strömmen. Minnet hålls därför konstant
+ * oavsett hur många karaktärer som finns.
+ */
+@Service
+public class CharacterExportService {
+
+    private static final int CHUNK_SIZE = CharacterService.MAX_PAGE_SIZE;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final CharacterRepository characterRepository;
+    private final CharacterService characterService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectWriter writer;
+
+    public CharacterExportService(
+            CharacterRepository characterRepository,
+            CharacterService characterService,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper) {
+        this.characterRepository = characterRepository;
+        this.characterService = characterService;
+        this.entityManager = entityManager;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.writer = objectMapper.writerFor(CharacterWithDetailsDTO.class);
+    }
+
+    /**
+     * Skriver alla karaktärer som NDJSON till out. Strömmen stängs inte här.
+     */
+    public void exportAsNdjson(OutputStream out) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        CharacterCursor cursor = CharacterCursor.start("id", Sort.Direction.ASC);
+
+        List<CharacterWithDetailsDTO> chunk;
+        do {
+            chunk = readChunk(cursor);
+            for (CharacterWithDetailsDTO dto : chunk) {
+                buffered.write(writer.writeValueAsBytes(dto));
+                buffered.write('\n');
+            }
+            buffered.flush(); // Skicka iväg chunken till klienten innan nästa läses
+            if (!chunk.isEmpty()) {
+                cursor = cursor.after(chunk.get(chunk.size() - 1));
+            }
+        } while (chunk.size() == CHUNK_SIZE);
+    }
+
+    /**
+     * Läser och mappar nästa chunk i en egen kort transaktion och kastar sedan entiteterna,
+     * så att persistence context inte växer under exporten.
+     */
+    private List<CharacterWithDetailsDTO> readChunk(CharacterCursor cursor) {
+        return readOnlyTx.execute(status -> {
+            List<Character> characters = characterRepository
+                    .findAllBy(cursor.position(), cursor.sort(), Limit.of(CHUNK_SIZE))
+                    .getContent();
+            List<CharacterWithDetailsDTO> dtos = characters.stream()
+                    .map(characterService::toDTO)
+                    .toList();
+            entityManager.clear();
+            return dtos;
+        });
+    }
+}
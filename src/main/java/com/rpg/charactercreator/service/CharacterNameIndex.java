@@ -0,0 +1,328 @@
+package com.rpg.charactercreator.service;
+
+import com.rpg.charactercreator.dto.NameSuggestionDTO;
+import com.rpg.charactercreator.repository.CharacterRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 🔎 Trigram-index över karaktärsnamn i minnet.
+ * Ersätter LOWER(name) LIKE '%x%' (full table scan) för /characters/search:
+ * varje namn delas upp i 3-teckens-bitar, och en sökning slår upp kandidaterna
+ * via snittet av bitarnas id-mängder innan den verifierar med contains().
+ * Samma index håller även ett sorterat prefix-index för autocomplete (/characters/suggest).
+ * Indexet laddas vid uppstart och hålls uppdaterat av CharacterService efter commit.
+ * Ändringar från andra noder förs in vid nästa resyncChanges() (nya och ändrade rader) eller
+ * resync() (full avstämning, även borttagna) – se ClusterRefreshConfig.
+ */
+@Component
+public class CharacterNameIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CharacterNameIndex.class);
+    private static final int GRAM = 3;
+    private static final int LOAD_CHUNK_SIZE = 10_000;
+    // resyncChanges() läser lite bakåt i tiden: klockskillnad mellan noder och transaktioner som committar sent
+    static final Duration CHANGE_OVERLAP = Duration.ofMinutes(2);
+
+    private final CharacterRepository characterRepository;
+
+    private final Map<Long, String> namesById = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> idsByTrigram = new ConcurrentHashMap<>();
+    private final NamePrefixIndex prefixIndex = new NamePrefixIndex();
+    private volatile boolean ready;
+
+    // Lås i stället för synchronized (JDBC under låset, virtuella trådar); en resync åt gången
+    private final ReentrantLock resyncLock = new ReentrantLock();
+    // Id:n som ändrats lokalt under pågående resync(); null när ingen resync pågår
+    private volatile Set<Long> touchedDuringResync;
+    // Högsta id och starttid för senaste läsningen från databasen (utgångspunkt för resyncChanges)
+    private volatile long syncedMaxId;
+    private volatile LocalDateTime syncedAt;
+
+    private final Clock clock;
+
+    @Autowired
+    public CharacterNameIndex(CharacterRepository characterRepository) {
+        this(characterRepository, Clock.systemDefaultZone());
+    }
+
+    CharacterNameIndex(CharacterRepository characterRepository, Clock clock) {
+        this.characterRepository = characterRepository;
+        this.clock = clock;
+    }
+
+    /**
+     * Bygger indexet från databasen (id + namn i chunks, inga entiteter).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        LocalDateTime started = LocalDateTime.now(clock);
+        long afterId = 0;
+        List<NameSuggestionDTO> chunk;
+        do {
+            chunk = characterRepository.findNamesAfter(afterId, Limit.of(LOAD_CHUNK_SIZE));
+            for (NameSuggestionDTO row : chunk) {
+                index(row.getId(), row.getName());
+                afterId = row.getId();
+            }
+        } while (chunk.size() == LOAD_CHUNK_SIZE);
+        synced(afterId, started);
+        ready = true;
+        log.info("Character name index loaded with {} names and {} trigrams", namesById.size(), idsByTrigram.size());
+    }
+
+    /**
+     * 🔁 Stäm av indexet mot hela tabellen: namn som lagts till, bytts eller tagits bort på andra noder
+     * förs in utan att indexet töms, så sökningar ser hela tiden ett komplett index.
+     * Id:n som ändras lokalt medan databasen läses hoppas över – deras uppdatering är nyare än läsningen.
+     * Läser alla namn, så körs sällan; däremellan räcker resyncChanges().
+     */
+    public void resync() {
+        if (!ready || !resyncLock.tryLock()) return;
+        Set<Long> touched = ConcurrentHashMap.newKeySet();
+        touchedDuringResync = touched;
+        try {
+            LocalDateTime started = LocalDateTime.now(clock);
+            Set<Long> before = new HashSet<>(namesById.keySet());
+            Map<Long, String> names = new HashMap<>();
+            long afterId = 0;
+            List<NameSuggestionDTO> chunk;
+            do {
+                chunk = characterRepository.findNamesAfter(afterId, Limit.of(LOAD_CHUNK_SIZE));
+                for (NameSuggestionDTO row : chunk) {
+                    names.put(row.getId(), row.getName());
+                    afterId = row.getId();
+                }
+            } while (chunk.size() == LOAD_CHUNK_SIZE);
+
+            int changed = 0;
+            for (Map.Entry<Long, String> entry : names.entrySet()) {
+                Long id = entry.getKey();
+                if (!touched.contains(id) && !Objects.equals(entry.getValue(), namesById.get(id))) {
+                    index(id, entry.getValue());
+                    changed++;
+                }
+            }
+            for (Long id : before) {
+                if (!names.containsKey(id) && !touched.contains(id)) {
+                    unindex(id);
+                    changed++;
+                }
+            }
+            synced(afterId, started);
+            if (changed > 0) {
+                log.info("Character name index resynced: {} names changed", changed);
+            }
+        } finally {
+            touchedDuringResync = null;
+            resyncLock.unlock();
+        }
+    }
+
+    /**
+     * 🔁 Inkrementell avstämning: bara karaktärer med högre id än senaste läsningen eller updated_at
+     * sedan dess (minus CHANGE_OVERLAP). Borttagna karaktärer syns inte här, de tas bort av resync().
+     */
+    public void resyncChanges() {
+        if (!ready || !resyncLock.tryLock()) return;
+        Set<Long> touched = ConcurrentHashMap.newKeySet();
+        touchedDuringResync = touched;
+        try {
+            LocalDateTime started = LocalDateTime.now(clock);
+            long maxId = syncedMaxId;
+            int changed = 0;
+            for (NameSuggestionDTO row : characterRepository.findNamesChangedSince(maxId, syncedAt.minus(CHANGE_OVERLAP))) {
+                Long id = row.getId();
+                maxId = Math.max(maxId, id);
+                if (!touched.contains(id) && !Objects.equals(row.getName(), namesById.get(id))) {
+                    index(id, row.getName());
+                    changed++;
+                }
+            }
+            synced(maxId, started);
+            if (changed > 0) {
+                log.info("Character name index caught up: {} names changed", changed);
+            }
+        } finally {
+            touchedDuringResync = null;
+            resyncLock.unlock();
+        }
+    }
+
+    /** Är indexet laddat? Innan dess får anroparen fråga databasen. */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Lägg till/uppdatera ett namn (efter commit om en transaktion pågår).
+     */
+    public void put(Long id, String name) {
+        afterCommit(() -> {
+            touched(id);
+            index(id, name);
+        });
+    }
+
+    /**
+     * Ta bort en karaktär ur indexet (efter commit om en transaktion pågår).
+     */
+    public void remove(Long id) {
+        afterCommit(() -> {
+            touched(id);
+            unindex(id);
+        });
+    }
+
+    /**
+     * Sök id:n vars namn innehåller query (case-insensitive), rankade:
+     * exakt träff, sedan prefix, sedan tidig träff, kort namn och lågt id. Max limit träffar.
+     */
+    public List<Long> search(String query, int limit) {
+        String needle = normalize(query);
+        List<Match> matches = new ArrayList<>();
+        for (Long id : candidates(needle)) {
+            String name = namesById.get(id);
+            String normalized = normalize(name);
+            int position = normalized.indexOf(needle);
+            if (position >= 0) {
+                matches.add(new Match(id, normalized.length(), position, normalized.equals(needle)));
+            }
+        }
+        return matches.stream()
+                .sorted(RANKING)
+                .limit(limit)
+                .map(Match::id)
+                .toList();
+    }
+
+    /**
+     * Autocomplete: max limit karaktärer (id + namn) vars namn börjar på prefix.
+     */
+    public List<NameSuggestionDTO> suggest(String prefix, int limit) {
+        return prefixIndex.suggest(prefix, limit);
+    }
+
+    /** En verifierad träff med det som behövs för rankningen. */
+    private record Match(Long id, int length, int position, boolean exact) { }
+
+    private static final Comparator<Match> RANKING = Comparator
+            .comparing((Match m) -> !m.exact())
+            .thenComparingInt(Match::position)
+            .thenComparingInt(Match::length)
+            .thenComparingLong(Match::id);
+
+    /**
+     * Kandidater = snittet av id-mängderna för queryns trigram (minsta mängden först).
+     * Korta queries (< 3 tecken) har inga trigram och går igenom alla namn i minnet.
+     */
+    private Collection<Long> candidates(String needle) {
+        Set<String> grams = trigrams(needle);
+        if (grams.isEmpty()) {
+            return namesById.keySet();
+        }
+        List<Set<Long>> postings = new ArrayList<>();
+        for (String gram : grams) {
+            Set<Long> ids = idsByTrigram.get(gram);
+            if (ids == null || ids.isEmpty()) {
+                return List.of();
+            }
+            postings.add(ids);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+
+        List<Long> result = new ArrayList<>();
+        for (Long id : postings.get(0)) {
+            if (postings.stream().skip(1).allMatch(ids -> ids.contains(id))) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private void index(Long id, String name) {
+        unindex(id);
+        if (name == null) return;
+        namesById.put(id, name);
+        prefixIndex.put(id, name);
+        for (String gram : trigrams(normalize(name))) {
+            idsByTrigram.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    private void unindex(Long id) {
+        String previous = namesById.remove(id);
+        if (previous == null) return;
+        prefixIndex.remove(id);
+        for (String gram : trigrams(normalize(previous))) {
+            Set<Long> ids = idsByTrigram.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+            }
+        }
+    }
+
+    private void synced(long maxId, LocalDateTime startedAt) {
+        syncedMaxId = maxId;
+        syncedAt = startedAt;
+    }
+
+    private void touched(Long id) {
+        Set<Long> touched = touchedDuringResync;
+        if (touched != null) {
+            touched.add(id);
+        }
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Kör action först när transaktionen har committats, så att en rollback inte lämnar indexet fel.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.rpg.charactercreator.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 🔐 Kortlivad cache av vilka karaktärs-id:n en användare äger (bara positiva svar).
+ * Ägarskap kan inte flyttas via API:t, så en träff är säker under TTL:en; raderade karaktärer
+ * tas bort direkt med evict(). Storleken är begränsad per användare och totalt.
+ */
+@Component
+public class CharacterOwnershipCache {
+
+    static final Duration TTL = Duration.ofSeconds(30);
+    static final int MAX_PRINCIPALS = 10_000;
+    static final int MAX_IDS_PER_PRINCIPAL = 1_000;
+
+    private final Map<String, Map<Long, Long>> ownedByUsername = new ConcurrentHashMap<>(); // username -> (id -> utgång i nanos)
+    private final LongSupplier clock;
+
+    public CharacterOwnershipCache() {
+        this(System::nanoTime);
+    }
+
+    CharacterOwnershipCache(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /** Är username känd ägare av characterId (och inte utgången)? */
+    public boolean isOwner(String username, Long characterId) {
+        Map<Long, Long> owned = ownedByUsername.get(username);
+        Long expiresAt = owned != null ? owned.get(characterId) : null;
+        if (expiresAt == null) return false;
+        if (clock.getAsLong() - expiresAt >= 0) {
+            owned.remove(characterId, expiresAt);
+            return false;
+        }
+        return true;
+    }
+
+    /** Kom ihåg att username äger characterId i TTL. */
+    public void put(String username, Long characterId) {
+        if (ownedByUsername.size() >= MAX_PRINCIPALS && !ownedByUsername.containsKey(username)) {
+            ownedByUsername.clear(); // enkel gräns: allt byggs upp igen med en query per kontroll
+        }
+        long now = clock.getAsLong();
+        Map<Long, Long> owned = ownedByUsername.computeIfAbsent(username, u -> new ConcurrentHashMap<>());
+        if (owned.size() >= MAX_IDS_PER_PRINCIPAL) {
+            owned.values().removeIf(expiresAt -> now - expiresAt >= 0);
+            if (owned.size() >= MAX_IDS_PER_PRINCIPAL) owned.clear();
+        }
+        owned.put(characterId, now + TTL.toNanos());
+    }
+
+    /** Glöm en karaktär (t.ex. när den raderas). */
+    public void evict(Long characterId) {
+        ownedByUsername.values().forEach(owned -> owned.remove(characterId));
+    }
+}
@@ -1,14 +1,21 @@
 package com.rpg.charactercreator.service;
 
 import com.rpg.charactercreator.dto.CharacterCreateDTO;
+import com.rpg.charactercreator.dto.CharacterCursorPageDTO;
 import com.rpg.charactercreator.dto.CharacterUpdateDTO;
 import com.rpg.charactercreator.dto.CharacterWithDetailsDTO;
 import com.rpg.charactercreator.dto.InventoryItemDTO;
+import com.rpg.charactercreator.dto.NameSuggestionDTO;
 import com.rpg.charactercreator.exception.CharacterNotFoundException;
 import com.rpg.charactercreator.exception.ClassNotFoundException;
+import com.rpg.charactercreator.exception.ConcurrentUpdateException;
+import com.rpg.charactercreator.exception.InsufficientQuantityException;
+import com.rpg.charactercreator.exception.InvalidQuantityException;
+import com.rpg.charactercreator.exception.InventoryItemNotFoundException;
 import com.rpg.charactercreator.exception.UserNotFoundException;
 import com.rpg.charactercreator.model.Character;
 import com.rpg.charactercreator.model.InventoryItem;
+import com.rpg.charactercreator.model.ItemDefinition;
 import com.rpg.charactercreator.model.RPGClass;
 import com.rpg.charactercreator.model.Skill;
 import com.rpg.charactercreator.model.User;
@@ -17,12 +24,27 @@ import com.rpg.charactercreator.repository.InventoryItemRepository;
 import com.rpg.charactercreator.repository.RPGClassRepository;
 import com.rpg.charactercreator.repository.SkillRepository;
 import com.rpg.charactercreator.repository.UserRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -31,23 +53,66 @@ import java.util.stream.Collectors;
 @Service
 public class CharacterService {
 
+    /** Max antal karaktärer per sida (samma som hibernate.default_batch_fetch_size). */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /** Max antal inventory-staplar per sida (projektion, ingen batch-laddning att hålla sig inom). */
+    public static final int MAX_INVENTORY_PAGE_SIZE = 500;
+
+    /** Antal försök när en samtidig request hann skapa samma stapel eller föremålsdefinition först. */
+    private static final int MAX_CONFLICT_ATTEMPTS = 3;
+
     private final CharacterRepository characterRepository;
     private final UserRepository userRepository;
     private final RPGClassRepository classRepository;
     private final SkillRepository skillRepository;
     private final InventoryItemRepository inventoryItemRepository;
+    private final ItemDefinitionService itemDefinitionService;
+    private final CharacterNameIndex characterNameIndex;
+    private final ClassCatalogService catalogService;
+    private final CharacterOwnershipCache ownershipCache;
+    private final TransactionTemplate transactionTemplate;
 
     public CharacterService(
             CharacterRepository characterRepository,
             UserRepository userRepository,
             RPGClassRepository classRepository,
             SkillRepository skillRepository,
-            InventoryItemRepository inventoryItemRepository) {
+            InventoryItemRepository inventoryItemRepository,
+            ItemDefinitionService itemDefinitionService,
+            CharacterNameIndex characterNameIndex,
+            ClassCatalogService catalogService,
+            CharacterOwnershipCache ownershipCache,
+            PlatformTransactionManager transactionManager) {
         this.characterRepository = characterRepository;
         this.userRepository = userRepository;
         this.classRepository = classRepository;
         this.skillRepository = skillRepository;
         this.inventoryItemRepository = inventoryItemRepository;
+        this.itemDefinitionService = itemDefinitionService;
+        this.characterNameIndex = characterNameIndex;
+        this.catalogService = catalogService;
+        this.ownershipCache = ownershipCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Skapar karaktär åt inloggad användare och returnerar den som DTO (byggs inom transaktionen).
+     * Klass och skills i svaret kommer från samma katalog-bild som valideringen använde.
+     * Görs om om en samtidig request hann skapa samma nya föremålsdefinition (se retryOnConflict).
+     */
+    public CharacterWithDetailsDTO createCharacterWithDetailsForUsername(CharacterCreateDTO dto, String username) {
+        return retryOnConflict(() -> {
+            List<Long> skillIds = dto.getSkillIds() != null ? dto.getSkillIds() : List.of();
+            RPGClass rpgClass = catalogClass(dto.getClassName());
+
+            Character created = create(dto, ownerReference(username), rpgClass, skillIds, dto.getStartingItems());
+
+            List<Skill> skills = skillIds.stream()
+                    .flatMap(id -> rpgClass.getSkillList().stream().filter(skill -> id.equals(skill.getId())))
+                    .toList();
+            return toDTO(created, rpgClass, skills, username);
+        });
     }
 
     /**
@@ -61,10 +126,7 @@ public class CharacterService {
             List<Long> skillIds,
             List<InventoryItemDTO> startingItems) {
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("No user with username: " + username));
-
-        return createCharacter(dto, user.getUserId(), className, skillIds, startingItems);
+        return create(dto, ownerReference(username), catalogClass(className), skillIds, startingItems);
     }
 
     /**
@@ -78,55 +140,68 @@ public class CharacterService {
             List<Long> skillIds,
             List<InventoryItemDTO> startingItems) {
 
-        // Hämta ägare och klass eller kasta 404/400
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(userId));
-        RPGClass rpgClass = classRepository.findByName(className)
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException(userId);
+        }
+        return create(dto, userRepository.getReferenceById(userId), catalogClass(className), skillIds, startingItems);
+    }
+
+    /**
+     * Ägaren som referens: bara id:t slås upp – användaren (och dess roller) laddas aldrig.
+     */
+    private User ownerReference(String username) {
+        Long userId = userRepository.findUserIdByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException("No user with username: " + username));
+        return userRepository.getReferenceById(userId);
+    }
+
+    /**
+     * Klass (med skills) ur katalog-bilden eller 404.
+     */
+    private RPGClass catalogClass(String className) {
+        return catalogService.current().findByName(className)
                 .orElseThrow(() -> new ClassNotFoundException(className));
+    }
+
+    /**
+     * Gemensam skapa-väg med så få rundresor som möjligt:
+     * klassen + dess skills kommer från katalog-bilden, klass/skills binds som referenser,
+     * och karaktären sparas med inventory via cascade – allt skrivs i batchar vid flush.
+     */
+    private Character create(
+            CharacterCreateDTO dto,
+            User owner,
+            RPGClass rpgClass,
+            List<Long> skillIds,
+            List<InventoryItemDTO> startingItems) {
+
+        // Validera 3 valda skills mot klassen innan något skrivs
+        validateSkillSelection(rpgClass, skillIds);
+        List<InventoryItemDTO> inventory = startingInventory(rpgClass, startingItems);
 
         // Bygg entitet med defaults från klassen
         Character character = new Character();
         character.setName(dto.getName());
         character.setLevel(1);
-        character.setUser(user);
+        character.setUser(owner);
         character.setBackground(dto.getBackground());
-        character.setRpgClass(rpgClass);
+        character.setRpgClass(classRepository.getReferenceById(rpgClass.getClassId()));
         character.setStrength(rpgClass.getStrength());
         character.setDexterity(rpgClass.getDexterity());
         character.setIntelligence(rpgClass.getIntelligence());
         character.setConstitution(rpgClass.getConstitution());
         character.setWisdom(rpgClass.getWisdom());
         character.setCharisma(rpgClass.getCharisma());
+        character.setSkills(skillIds.stream()
+                .map(skillRepository::getReferenceById)
+                .collect(Collectors.toList()));
 
-        // Validera och sätt 3 valda skills
-        validateSelectedSkills(className, skillIds);
-        List<Skill> selectedSkills = skillRepository.findAllById(skillIds);
-        character.setSkills(selectedSkills);
+        // Startföremål (max 3) + klassens starting weapon + standardrustning som staplar, sparas via cascade
+        itemDefinitionService.resolveStacks(inventory).forEach((definition, quantity) -> character.getInventoryItems()
+                .add(new InventoryItem(definition, quantity, character)));
 
-        // Spara karaktären först (behövs för foreign keys)
         Character savedCharacter = characterRepository.save(character);
-
-        // Spara startföremål (max 3)
-        if (startingItems != null && startingItems.size() > 3) {
-            throw new IllegalArgumentException("You can only select up to 3 starting items.");
-        }
-        if (startingItems != null) {
-            List<InventoryItem> selectedItems = startingItems.stream()
-                    .filter(item -> item.getName() != null && item.getDescription() != null)
-                    .map(item -> new InventoryItem(item.getName(), item.getDescription(), savedCharacter))
-                    .collect(Collectors.toList());
-            inventoryItemRepository.saveAll(selectedItems);
-        }
-
-        // Lägg till klassens starting weapon i inventory om den finns
-        String startingWeapon = rpgClass.getStartingWeapon();
-        if (startingWeapon != null && !startingWeapon.isBlank()) {
-            inventoryItemRepository.save(new InventoryItem(startingWeapon, "Class starting weapon.", savedCharacter));
-        }
-
-        // Lägg på standardutrustning (t.ex. rustning) baserat på armor-type/roll
-        assignDefaultEquipment(savedCharacter, rpgClass.getRole());
-
+        characterNameIndex.put(savedCharacter.getId(), savedCharacter.getName());
         return savedCharacter;
     }
 
@@ -158,17 +233,26 @@ public class CharacterService {
      * Mapper: Character -> CharacterWithDetailsDTO (gömmer känsligt & plattar relationer).
      */
     public CharacterWithDetailsDTO toDTO(Character character) {
+        return toDTO(character, character.getRpgClass(), character.getSkills(),
+                character.getUser() != null ? character.getUser().getUsername() : "unknown");
+    }
+
+    /**
+     * Som toDTO(Character), men med klass, skills och ägarnamn som redan är kända
+     * (t.ex. ur katalog-bilden) – inget av det behöver laddas.
+     */
+    private CharacterWithDetailsDTO toDTO(Character character, RPGClass rpgClass, List<Skill> skills, String username) {
         CharacterWithDetailsDTO dto = new CharacterWithDetailsDTO();
         dto.setId(character.getId());
         dto.setName(character.getName());
         dto.setLevel(character.getLevel());
         dto.setBackground(character.getBackground());
-        dto.setSkills(character.getSkills().stream().map(Skill::getName).collect(Collectors.toList()));
-        dto.setClassName(character.getRpgClass().getName());
-        dto.setRole(character.getRpgClass().getRole());
-        dto.setArmorType(character.getRpgClass().getArmorType());
-        dto.setWeapons(character.getRpgClass().getWeapons());
-        dto.setUsername(character.getUser() != null ? character.getUser().getUsername() : "unknown");
+        dto.setSkills(skills.stream().map(Skill::getName).collect(Collectors.toList()));
+        dto.setClassName(rpgClass.getName());
+        dto.setRole(rpgClass.getRole());
+        dto.setArmorType(rpgClass.getArmorType());
+        dto.setWeapons(new ArrayList<>(rpgClass.getWeapons())); // kopia, inte Hibernates lazy-lista
+        dto.setUsername(username);
         dto.setStrength(character.getStrength());
         dto.setDexterity(character.getDexterity());
         dto.setIntelligence(character.getIntelligence());
@@ -176,36 +260,109 @@ public class CharacterService {
         dto.setWisdom(character.getWisdom());
         dto.setCharisma(character.getCharisma());
         dto.setInventory(character.getInventoryItems().stream()
-                .map(InventoryItem::getName)
+                .map(CharacterService::inventoryEntry)
                 .collect(Collectors.toList()));
         return dto;
     }
 
     /**
-     * Sök + returnera som DTO-lista.
+     * En rad per stapel i DTO:ns inventory: "Potion" för en enstaka, "Potion x3" för en stapel om tre.
      */
-    public List<CharacterWithDetailsDTO> searchByNameWithDetails(String name) {
-        return characterRepository.findByNameContainingIgnoreCase(name)
-                .stream()
+    private static String inventoryEntry(InventoryItem item) {
+        return item.getQuantity() > 1 ? item.getName() + " x" + item.getQuantity() : item.getName();
+    }
+
+    /**
+     * Sök + returnera som DTO-lista (max limit träffar, bäst rankade först).
+     * Svaras från trigram-indexet; bara de matchande id:na hämtas från databasen.
+     */
+    @Transactional(readOnly = true)
+    public List<CharacterWithDetailsDTO> searchByNameWithDetails(String name, int limit) {
+        int max = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        if (!characterNameIndex.isReady()) {
+            return characterRepository.findByNameContainingIgnoreCaseOrderById(name, Limit.of(max))
+                    .stream()
+                    .map(this::toDTO)
+                    .collect(Collectors.toList());
+        }
+
+        List<Long> ids = characterNameIndex.search(name, max);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Character> byId = characterRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Character::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull) // hoppa över id:n som hunnit tas bort
                 .map(this::toDTO)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Autocomplete på karaktärsnamn (bara id + namn, direkt från minnet).
+     */
+    public List<NameSuggestionDTO> suggestNames(String prefix, int limit) {
+        return characterNameIndex.suggest(prefix, Math.clamp(limit, 1, MAX_PAGE_SIZE));
+    }
+
     /**
      * Hämta alla karaktärer med pagination som DTO.
+     * Klass + ägare joinas in, samlingarna batch-laddas => fast antal queries per sida.
      */
+    @Transactional(readOnly = true)
     public Page<CharacterWithDetailsDTO> getAllCharactersWithDetails(Pageable pageable) {
-        return characterRepository.findAll(pageable).map(this::toDTO);
+        return characterRepository.findAllWithClassAndUser(pageable).map(this::toDTO);
     }
 
     /**
-     * Ägarkoll: stämmer username med karaktärens ägare?
+     * Hämta en sida karaktärer med keyset/cursor-paginering.
+     * Med cursor fortsätter vi där förra sidan slutade (sortering ligger i cursorn),
+     * annars startar vi från början med given sortering.
      */
     @Transactional(readOnly = true)
+    public CharacterCursorPageDTO scrollCharactersWithDetails(String cursor, String sortKey, String direction, int size) {
+        CharacterCursor current = cursor != null && !cursor.isBlank()
+                ? CharacterCursor.decode(cursor)
+                : CharacterCursor.start(sortKey, Sort.Direction.fromString(direction));
+
+        Window<Character> window = characterRepository.findAllBy(
+                current.position(), current.sort(), Limit.of(Math.clamp(size, 1, MAX_PAGE_SIZE)));
+
+        List<CharacterWithDetailsDTO> content = window.getContent().stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+        String next = window.hasNext() && !content.isEmpty()
+                ? current.after(content.get(content.size() - 1)).encode()
+                : null;
+        return new CharacterCursorPageDTO(content, next);
+    }
+
+    /**
+     * Ägarkoll: stämmer username med karaktärens ägare?
+     * Träffar i ägarcachen kostar ingen query, annars en existens-query. Bara ett nej kostar en
+     * extra query, för att skilja "inte din" från "finns inte" (404).
+     */
     public boolean isOwner(Long characterId, String username) {
-        Character c = characterRepository.findById(characterId)
-                .orElseThrow(() -> new CharacterNotFoundException(characterId));
-        return c.getUser() != null && username != null && username.equals(c.getUser().getUsername());
+        if (username == null) return false;
+        if (ownershipCache.isOwner(username, characterId)) return true;
+
+        if (characterRepository.existsByIdAndUserUsername(characterId, username)) {
+            ownershipCache.put(username, characterId);
+            return true;
+        }
+        if (!characterRepository.existsById(characterId)) {
+            throw new CharacterNotFoundException(characterId);
+        }
+        return false;
+    }
+
+    /**
+     * Partiell uppdatering som returnerar DTO:n (byggs inom transaktionen).
+     */
+    @Transactional
+    public CharacterWithDetailsDTO updateCharacterWithDetails(Long id, CharacterUpdateDTO updateDTO) {
+        return toDTO(updateCharacter(id, updateDTO));
     }
 
     /**
@@ -224,9 +381,9 @@ public class CharacterService {
         if (updateDTO.getCharisma() != null) character.setCharisma(updateDTO.getCharisma());
         if (updateDTO.getName() != null) character.setName(updateDTO.getName());
         if (updateDTO.getClassName() != null) {
-            RPGClass newClass = classRepository.findByName(updateDTO.getClassName())
+            RPGClass newClass = catalogService.current().findByName(updateDTO.getClassName())
                     .orElseThrow(() -> new ClassNotFoundException(updateDTO.getClassName()));
-            character.setRpgClass(newClass);
+            character.setRpgClass(classRepository.getReferenceById(newClass.getClassId()));
         }
         if (updateDTO.getSkillIds() != null) {
             List<Skill> updatedSkills = skillRepository.findAllById(updateDTO.getSkillIds());
@@ -234,7 +391,9 @@ public class CharacterService {
             character.getSkills().addAll(updatedSkills);
         }
 
-        return characterRepository.save(character);
+        Character saved = characterRepository.save(character);
+        characterNameIndex.put(saved.getId(), saved.getName());
+        return saved;
     }
 
     /**
@@ -249,82 +408,202 @@ public class CharacterService {
     /**
      * Ta bort karaktär (används av controller efter ägarkoll/rollkoll).
      */
+    @Transactional
     public void deleteById(Long id) {
-        characterRepository.deleteById(id);
+        Character character = characterRepository.findById(id)
+                .orElseThrow(() -> new CharacterNotFoundException(id));
+        characterRepository.delete(character);
+        characterNameIndex.remove(id);
+        ownershipCache.evict(id);
     }
 
     /**
-     * Validerar att exakt 3 skills valts och att de hör till klassen.
+     * Validerar valda skills mot en redan hämtad klass (används även av bulk-skapandet).
      */
-    private void validateSelectedSkills(String className, List<Long> skillIds) {
+    static void validateSkillSelection(RPGClass rpgClass, List<Long> skillIds) {
         if (skillIds == null || skillIds.size() != 3)
             throw new IllegalArgumentException("You must select 3 starting skills.");
 
-        RPGClass rpgClass = classRepository.findByName(className)
-                .orElseThrow(() -> new ClassNotFoundException(className));
-
-        List<Long> allowedSkillIds = rpgClass.getSkillList()
+        List<Long> allowedSkillIds = rpgClass.getSkillList() == null ? List.of() : rpgClass.getSkillList()
                 .stream()
                 .map(Skill::getId)
                 .toList();
 
         for (Long id : skillIds) {
             if (!allowedSkillIds.contains(id)) {
-                throw new IllegalArgumentException("Skill ID " + id + " is not allowed for class " + className);
+                throw new IllegalArgumentException("Skill ID " + id + " is not allowed for class " + rpgClass.getName());
             }
         }
     }
 
+    /**
+     * Alla föremål en ny karaktär startar med: valda startföremål (max 3),
+     * klassens starting weapon och standardrustning baserat på armor-type/roll.
+     * Ingen stapel får bli större än InventoryItem.MAX_QUANTITY (InvalidQuantityException => 400).
+     */
+    static List<InventoryItemDTO> startingInventory(RPGClass rpgClass, List<InventoryItemDTO> startingItems) {
+        if (startingItems != null && startingItems.size() > 3) {
+            throw new IllegalArgumentException("You can only select up to 3 starting items.");
+        }
+
+        List<InventoryItemDTO> items = new ArrayList<>();
+        if (startingItems != null) {
+            startingItems.stream()
+                    .filter(item -> item.getName() != null && item.getDescription() != null)
+                    .forEach(items::add);
+        }
+
+        String startingWeapon = rpgClass.getStartingWeapon();
+        if (startingWeapon != null && !startingWeapon.isBlank()) {
+            items.add(new InventoryItemDTO(startingWeapon, "Class starting weapon."));
+        }
+
+        String armor = defaultArmorFor(rpgClass);
+        if (armor != null) {
+            items.add(new InventoryItemDTO(armor, "Basic armor for your class."));
+        }
+        ItemDefinitionService.checkStackSizes(items);
+        return items;
+    }
+
     /**
      * Lägg till ett inventory-item till en karaktär.
      */
-    @Transactional
     public void addInventoryItem(Long characterId, InventoryItemDTO dto) {
-        Character character = characterRepository.findById(characterId)
-                .orElseThrow(() -> new CharacterNotFoundException(characterId));
+        addInventoryItems(characterId, List.of(dto));
+    }
 
-        InventoryItem item = new InventoryItem(dto.getName(), dto.getDescription(), character);
-        inventoryItemRepository.save(item);
+    /**
+     * 🎒 Lägg till flera inventory-items på en gång.
+     * Items slås ihop till staplar: befintliga staplar ökas atomiskt (UPDATE quantity = quantity + n),
+     * nya skrivs som en JDBC-batch. Karaktären kollas med en existens-query och binds som referens.
+     * Hann en samtidig request skapa samma stapel (eller definition) görs allt om, och ökningen hamnar
+     * då på den andras stapel; en stapel som hunnit tas bort innan ökningen skapas på nytt.
+     */
+    public void addInventoryItems(Long characterId, List<InventoryItemDTO> dtos) {
+        retryOnConflict(() -> {
+            addInventoryItemsOnce(characterId, dtos);
+            return null;
+        });
+    }
+
+    private void addInventoryItemsOnce(Long characterId, List<InventoryItemDTO> dtos) {
+        if (!characterRepository.existsById(characterId)) {
+            throw new CharacterNotFoundException(characterId);
+        }
+        if (dtos.isEmpty()) return;
+
+        Map<ItemDefinition, Integer> stacks = itemDefinitionService.resolveStacks(dtos);
+        Set<Long> stacked = new HashSet<>(inventoryItemRepository.findStackedDefinitionIds(characterId,
+                stacks.keySet().stream().map(ItemDefinition::getId).toList()));
+
+        Character character = characterRepository.getReferenceById(characterId);
+        List<InventoryItem> newStacks = new ArrayList<>();
+        stacks.forEach((definition, quantity) -> {
+            // 0 rader = stapeln togs bort efter findStackedDefinitionIds (skapa den igen) eller skulle bli för stor
+            if (!stacked.contains(definition.getId())
+                    || inventoryItemRepository.addQuantity(characterId, definition.getId(), quantity, InventoryItem.MAX_QUANTITY) == 0) {
+                if (stacked.contains(definition.getId()) && !inventoryItemRepository
+                        .findStackedDefinitionIds(characterId, List.of(definition.getId())).isEmpty()) {
+                    throw new InvalidQuantityException(definition.getName(), InventoryItem.MAX_QUANTITY);
+                }
+                newStacks.add(new InventoryItem(definition, quantity, character));
+            }
+        });
+        inventoryItemRepository.saveAll(newStacks);
     }
 
     /**
-     * Hämta en karaktärs inventory som DTO-lista (namn + beskrivning).
+     * Kör work i en transaktion och gör om den (max MAX_CONFLICT_ATTEMPTS gånger) om en unik nyckel krockar
+     * med en samtidig request – t.ex. två som skapar samma stapel eller föremålsdefinition. Nästa försök ser
+     * den andras rad och uppdaterar den i stället. Ingår anropet i en yttre transaktion går det inte att
+     * börja om (den är redan markerad för rollback), så då ges upp direkt. Att ge upp blir 409 utan
+     * databasens meddelande; andra integritetsfel (NOT NULL, främmande nyckel) görs inte om.
      */
-    @Transactional(readOnly = true)
-    public List<InventoryItemDTO> getInventoryForCharacter(Long characterId) {
-        List<InventoryItem> items = inventoryItemRepository.findByCharacterId(characterId);
+    private <T> T retryOnConflict(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (DataIntegrityViolationException e) {
+                if (!isUniqueKeyConflict(e)) {
+                    throw e;
+                }
+                if (attempt >= MAX_CONFLICT_ATTEMPTS || TransactionSynchronizationManager.isActualTransactionActive()) {
+                    throw new ConcurrentUpdateException(e);
+                }
+            }
+        }
+    }
 
-        return items.stream()
-                .map(item -> new InventoryItemDTO(item.getName(), item.getDescription()))
-                .collect(Collectors.toList());
+    // Hibernate märker unika nyckel-krockar (MySQL 1062, H2 23505) med ConstraintKind.UNIQUE
+    private static boolean isUniqueKeyConflict(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE;
+            }
+        }
+        return false;
     }
 
     /**
-     * Standardutrustning baserat på roll och armor-type.
+     * ➖ Ta ut quantity stycken ur en stapel; stapeln tas bort när den tar slut (exakt).
+     * Båda stegen är villkorade UPDATE/DELETE i databasen, så samtidiga uttag kan inte ge negativt antal.
+     * Fler än stapeln har => InsufficientQuantityException (409), inget tas ut; saknad stapel => 404.
      */
-    private void assignDefaultEquipment(Character character, String role) {
-        if (role == null) return;
-
-        RPGClass rpgClass = character.getRpgClass();
-        if (rpgClass != null && rpgClass.getArmorType() != null) {
-            String armor = switch (rpgClass.getArmorType().toLowerCase()) {
-                case "cloth" -> "Traveler's Cloth Robe";
-                case "leather" -> "Traveler's Leather Vest";
-                case "plate" -> "Traveler's Armor";
-                default -> "Traveler's Clothes";
-            };
-            inventoryItemRepository.save(new InventoryItem(armor, "Basic armor for your class.", character));
+    @Transactional
+    public void removeInventoryItem(Long characterId, Long itemId, int quantity) {
+        if (inventoryItemRepository.removeQuantity(characterId, itemId, quantity) == 0
+                && inventoryItemRepository.deleteStack(characterId, itemId, quantity) == 0) {
+            if (inventoryItemRepository.existsStack(characterId, itemId)) {
+                throw new InsufficientQuantityException(characterId, itemId, quantity);
+            }
+            throw new InventoryItemNotFoundException(characterId, itemId);
         }
     }
-    
 
     /**
-     * Hämta alla karaktärer för en given userId.
+     * Hämta en sida av en karaktärs inventory som DTO-lista (keyset på stapelns id).
+     * afterId = sista id från föregående sida (null = första sidan). Ren projektion, inga entiteter.
+     */
+    @Transactional(readOnly = true)
+    public List<InventoryItemDTO> getInventoryForCharacter(Long characterId, Long afterId, int limit) {
+        int pageSize = Math.clamp(limit, 1, MAX_INVENTORY_PAGE_SIZE);
+        long after = afterId != null ? afterId : 0L;
+        return inventoryItemRepository.findPageByCharacterId(characterId, after, Limit.of(pageSize));
+    }
+
+    /**
+     * Standardrustning baserat på roll och armor-type (null = ingen).
+     */
+    private static String defaultArmorFor(RPGClass rpgClass) {
+        if (rpgClass.getRole() == null || rpgClass.getArmorType() == null) return null;
+
+        return switch (rpgClass.getArmorType().toLowerCase()) {
+            case "cloth" -> "Traveler's Cloth Robe";
+            case "leather" -> "Traveler's Leather Vest";
+            case "plate" -> "Traveler's Armor";
+            default -> "Traveler's Clothes";
+        };
+    }
+
+    /**
+     * Hämta alla karaktärer för en given userId (indexerad query på user_id).
      */
     public List<Character> getCharactersByUserId(Long userId) {
-        return characterRepository.findAll()
+        return characterRepository.findByUserUserIdOrderByIdAsc(userId);
+    }
+
+    /**
+     * Hämta en keyset-sida av en användares karaktärer som DTO.
+     * afterId = sista id från föregående sida (null = första sidan).
+     */
+    @Transactional(readOnly = true)
+    public List<CharacterWithDetailsDTO> getCharactersWithDetailsByUserId(Long userId, Long afterId, int limit) {
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        long after = afterId != null ? afterId : 0L;
+        return characterRepository.findByUserUserIdAndIdGreaterThanOrderByIdAsc(userId, after, Limit.of(pageSize))
                 .stream()
-                .filter(c -> c.getUser() != null && c.getUser().getUserId().equals(userId))
+                .map(this::toDTO)
                 .collect(Collectors.toList());
     }
 }
\ No newline at end of file
@@ -0,0 +1,191 @@
+package com.rpg.charactercreator.service;
+
+import com.rpg.charactercreator.dto.StartingItemDTO;
+import com.rpg.charactercreator.model.RPGClass;
+import com.rpg.charactercreator.model.Skill;
+import com.rpg.charactercreator.model.StartingItem;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 📚 En oföränderlig ögonblicksbild av klasskatalogen (klasser, skills, vapen och startföremål).
+ * Byggs av ClassCatalogService och byts ut i sin helhet efter varje katalog-skrivning;
+ * version ökar för varje ny bild. ETag:en räknas ur innehållet (inte ur version), så att
+ * alla noder med samma katalog ger samma ETag. Objekten är fristående kopior (aldrig kopplade till en
+ * persistence context) med oföränderliga listor – läs dem, ändra dem aldrig.
+ */
+public final class ClassCatalog {
+
+    private final long version;
+    private final String fingerprint;
+    private final List<RPGClass> classes;
+    private final Map<String, RPGClass> classesByName;
+    private final Map<String, RPGClass> classesByLowerName;
+    private final List<Skill> skills;
+    private final Map<String, List<StartingItemDTO>> startingItemsByLowerClassName;
+
+    private ClassCatalog(long version, List<RPGClass> classes, List<Skill> skills,
+                         Map<String, List<StartingItemDTO>> startingItemsByLowerClassName) {
+        this.version = version;
+        this.classes = List.copyOf(classes);
+        this.skills = List.copyOf(skills);
+        this.startingItemsByLowerClassName = Map.copyOf(startingItemsByLowerClassName);
+
+        Map<String, RPGClass> byName = new HashMap<>();
+        Map<String, RPGClass> byLowerName = new HashMap<>();
+        for (RPGClass rpgClass : this.classes) {
+            if (rpgClass.getName() == null) continue;
+            byName.putIfAbsent(rpgClass.getName(), rpgClass);
+            byLowerName.putIfAbsent(lower(rpgClass.getName()), rpgClass);
+        }
+        this.classesByName = Map.copyOf(byName);
+        this.classesByLowerName = Map.copyOf(byLowerName);
+        this.fingerprint = fingerprint(this.classes, this.skills, this.startingItemsByLowerClassName);
+    }
+
+    /**
+     * Bygger en bild från (managed) entiteter: allt som behövs kopieras, inget refereras.
+     * Skills utan klass kommer bara med i skills().
+     */
+    static ClassCatalog of(long version, Collection<RPGClass> classes, Collection<Skill> skills,
+                           Collection<StartingItem> startingItems) {
+        Map<Long, Skill> skillCopies = new LinkedHashMap<>();
+        skills.forEach(skill -> skillCopies.put(skill.getId(), copyOf(skill)));
+
+        List<RPGClass> classCopies = new ArrayList<>();
+        for (RPGClass rpgClass : classes) {
+            List<Skill> classSkills = rpgClass.getSkillList() == null ? List.of() : rpgClass.getSkillList().stream()
+                    .map(skill -> skillCopies.computeIfAbsent(skill.getId(), id -> copyOf(skill)))
+                    .toList();
+            classCopies.add(copyOf(rpgClass, classSkills));
+        }
+
+        Map<String, List<StartingItemDTO>> itemsByClass = new HashMap<>();
+        for (StartingItem item : startingItems) {
+            if (item.getRpgClass() == null || item.getRpgClass().getName() == null) continue;
+            itemsByClass.computeIfAbsent(lower(item.getRpgClass().getName()), name -> new ArrayList<>())
+                    .add(new StartingItemDTO(item.getName(), item.getDescription()));
+        }
+        itemsByClass.replaceAll((name, items) -> List.copyOf(items));
+
+        return new ClassCatalog(version, classCopies, new ArrayList<>(skillCopies.values()), itemsByClass);
+    }
+
+    /** Ökar med ett för varje ny bild (används t.ex. för att avgöra om en cache är inaktuell). */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Stark ETag för allt som serveras ur den här bilden (/classes, /skills, startföremål).
+     * Samma innehåll => samma ETag, oavsett nod och omstarter.
+     */
+    public String etag() {
+        return "catalog-" + fingerprint;
+    }
+
+    /** Har bilderna samma innehåll (allt som serveras)? */
+    public boolean sameContentAs(ClassCatalog other) {
+        return other != null && fingerprint.equals(other.fingerprint);
+    }
+
+    /** Alla klasser med skills och vapen. */
+    public List<RPGClass> classes() {
+        return classes;
+    }
+
+    /** Klass via exakt namn (samma semantik som RPGClassRepository.findByName). */
+    public Optional<RPGClass> findByName(String name) {
+        return Optional.ofNullable(name).map(classesByName::get);
+    }
+
+    /** Klass via namn, oavsett skiftläge (samma semantik som findByNameWithSkills). */
+    public Optional<RPGClass> findByNameIgnoreCase(String name) {
+        return Optional.ofNullable(name).map(n -> classesByLowerName.get(lower(n)));
+    }
+
+    /** Alla skills, även de som saknar klass. */
+    public List<Skill> skills() {
+        return skills;
+    }
+
+    /** Startföremål för en klass (oavsett skiftläge), tom lista om klassen saknas. */
+    public List<StartingItemDTO> startingItemsFor(String className) {
+        return className == null ? List.of() : startingItemsByLowerClassName.getOrDefault(lower(className), List.of());
+    }
+
+    private static RPGClass copyOf(RPGClass source, List<Skill> skills) {
+        RPGClass copy = new RPGClass();
+        copy.setClassId(source.getClassId());
+        copy.setName(source.getName());
+        copy.setDescription(source.getDescription());
+        copy.setStrength(source.getStrength());
+        copy.setDexterity(source.getDexterity());
+        copy.setIntelligence(source.getIntelligence());
+        copy.setConstitution(source.getConstitution());
+        copy.setWisdom(source.getWisdom());
+        copy.setCharisma(source.getCharisma());
+        copy.setArmorType(source.getArmorType());
+        copy.setRole(source.getRole());
+        copy.setStartingWeapon(source.getStartingWeapon());
+        copy.setWeapons(source.getWeapons() == null ? List.of() : List.copyOf(source.getWeapons()));
+        copy.setSkillList(skills);
+        return copy;
+    }
+
+    private static Skill copyOf(Skill source) {
+        Skill copy = new Skill();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setDescription(source.getDescription());
+        return copy;
+    }
+
+    /**
+     * SHA-256 (första 16 hex-tecknen) över allt som serveras, i fast ordning.
+     * Fält separeras med ett NUL-tecken så att t.ex. "ab"+"c" och "a"+"bc" inte ger samma indata.
+     */
+    private static String fingerprint(List<RPGClass> classes, List<Skill> skills,
+                                      Map<String, List<StartingItemDTO>> startingItemsByLowerClassName) {
+        StringBuilder content = new StringBuilder();
+        for (RPGClass c : classes) {
+            append(content, "class", c.getClassId(), c.getName(), c.getDescription(),
+                    c.getStrength(), c.getDexterity(), c.getIntelligence(), c.getConstitution(), c.getWisdom(), c.getCharisma(),
+                    c.getArmorType(), c.getRole(), c.getStartingWeapon(), c.getWeapons());
+            c.getSkillList().forEach(skill -> append(content, "classSkill", skill.getId()));
+        }
+        skills.forEach(skill -> append(content, "skill", skill.getId(), skill.getName(), skill.getDescription()));
+        startingItemsByLowerClassName.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> entry.getValue().forEach(item ->
+                        append(content, "item", entry.getKey(), item.getName(), item.getDescription())));
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void append(StringBuilder content, Object... fields) {
+        for (Object field : fields) {
+            content.append(field).append('\u0000');
+        }
+        content.append('\n');
+    }
+
+    private static String lower(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,148 @@
+package com.rpg.charactercreator.service;
+
+import com.rpg.charactercreator.model.RPGClass;
+import com.rpg.charactercreator.repository.RPGClassRepository;
+import com.rpg.charactercreator.repository.SkillRepository;
+import com.rpg.charactercreator.repository.StartingItemRepository;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 📚 Håller den aktuella ClassCatalog-bilden i minnet.
+ * Läsvägarna (klasser, skills, startföremål, karaktärsskapande) frågar bara current() och går
+ * aldrig mot databasen. Katalog-skrivningar anropar refreshAfterCommit(), som läser om hela
+ * katalogen när transaktionen committats och byter bilden atomiskt (volatile-referens).
+ * Skrivningar på andra noder syns först vid nästa refreshIfChanged() (se ClusterRefreshConfig).
+ */
+@Service
+public class ClassCatalogService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClassCatalogService.class);
+
+    private final RPGClassRepository classRepository;
+    private final SkillRepository skillRepository;
+    private final StartingItemRepository startingItemRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate newReadOnlyTransaction;
+
+    // Lås i stället för synchronized: en omladdning gör JDBC och får inte låsa en virtuell tråds bärartråd
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private final List<Consumer<ClassCatalog>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile ClassCatalog current;
+
+    public ClassCatalogService(
+            RPGClassRepository classRepository,
+            SkillRepository skillRepository,
+            StartingItemRepository startingItemRepository,
+            PlatformTransactionManager transactionManager) {
+        this.classRepository = classRepository;
+        this.skillRepository = skillRepository;
+        this.startingItemRepository = startingItemRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Egen transaktion för afterCommit – där är den committade transaktionen fortfarande bunden
+        this.newReadOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.newReadOnlyTransaction.setReadOnly(true);
+        this.newReadOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Aktuell bild. Laddas vid första anropet om uppstarts-laddningen inte hunnit köra.
+     */
+    public ClassCatalog current() {
+        ClassCatalog catalog = current;
+        return catalog != null ? catalog : refresh();
+    }
+
+    /**
+     * 🔄 Läs om katalogen nu och byt bild. Seriell (reloadLock) så att två samtidiga omladdningar
+     * inte kan publicera en äldre bild efter en nyare.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public ClassCatalog refresh() {
+        return reload(readOnlyTransaction, false);
+    }
+
+    /**
+     * 🔁 Läs om katalogen men behåll nuvarande bild (och version) om innehållet är oförändrat,
+     * så att cachade svar inte kastas i onödan. Används av den periodiska omladdningen i
+     * multi-nod-läge. Returnerar true om en ny bild publicerades.
+     */
+    public boolean refreshIfChanged() {
+        ClassCatalog before = current;
+        return reload(readOnlyTransaction, true) != before;
+    }
+
+    /**
+     * Anropas (under omladdnings-låset, i publiceringsordning) med varje ny bild som publiceras.
+     */
+    public void addListener(Consumer<ClassCatalog> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Läs om katalogen när pågående transaktion committats (direkt om ingen transaktion pågår).
+     * En rollback lämnar den gamla bilden orörd.
+     */
+    public void refreshAfterCommit() {
+        refreshAfterCommit(() -> { });
+    }
+
+    /**
+     * Som refreshAfterCommit(), men kör först onCommit (t.ex. uppdatering av klassnamns-indexet)
+     * – också bara efter commit, så att en rollback inte lämnar spår i minnet.
+     */
+    public void refreshAfterCommit(Runnable onCommit) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    onCommit.run();
+                    reload(newReadOnlyTransaction, false);
+                }
+            });
+        } else {
+            onCommit.run();
+            refresh();
+        }
+    }
+
+    private ClassCatalog reload(TransactionTemplate transaction, boolean onlyIfChanged) {
+        reloadLock.lock();
+        try {
+            ClassCatalog previous = current;
+            long version = previous != null ? previous.version() + 1 : System.currentTimeMillis();
+            ClassCatalog catalog = transaction.execute(status -> {
+                List<RPGClass> classes = classRepository.findAllWithSkills();
+                classes.forEach(c -> Hibernate.initialize(c.getWeapons())); // batch-laddas (default_batch_fetch_size)
+                return ClassCatalog.of(version, classes, skillRepository.findAll(), startingItemRepository.findAll());
+            });
+            if (onlyIfChanged && catalog.sameContentAs(previous)) {
+                return previous;
+            }
+            current = catalog;
+            listeners.forEach(listener -> listener.accept(catalog));
+            log.info("Class catalog v{} loaded with {} classes and {} skills",
+                    version, catalog.classes().size(), catalog.skills().size());
+            return catalog;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+}
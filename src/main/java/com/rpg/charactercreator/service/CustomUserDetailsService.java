@@ -6,16 +6,25 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 
 @Service
-// Serviceklass för att ladda användardetaljer vid autentisering
-public class CustomUserDetailsService implements UserDetailsService {
+// Serviceklass för att ladda användardetaljer vid autentisering (och spara uppgraderade lösenordshashar)
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository users;
+    private final UserDetailsCache userCache;
 
-    // Konstruktor som injicerar UserRepository för att hämta användare från databasen
-    public CustomUserDetailsService(UserRepository users) { this.users = users; }
+    // Konstruktor som injicerar UserRepository för att hämta användare från databasen (och cachen framför den)
+    public CustomUserDetailsService(UserRepository users, UserDetailsCache userCache) {
+        this.users = users;
+        this.userCache = userCache;
+    }
 
-    // Metod som laddar användardetaljer baserat på användarnamn
+    // Metod som laddar användardetaljer baserat på användarnamn (från cachen om den finns där)
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        UserDetails cached = userCache.getUserFromCache(username);
+        if (cached != null) {
+            return cached;
+        }
+
         // Hämtar användaren från databasen eller kastar undantag om användaren inte finns
         var u = users.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
@@ -24,9 +33,21 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .map(r -> new SimpleGrantedAuthority(r.getName()))
                 .toList();
         // Skapar och returnerar en UserDetails-instans med användarens information och behörigheter
-        return new org.springframework.security.core.userdetails.User(
+        var details = new org.springframework.security.core.userdetails.User(
                 u.getUsername(), u.getPassword(), u.isEnabled(),
                 true, true, true, authorities
         );
+        userCache.putUserInCache(details);
+        return details;
+    }
+
+    // Anropas av Spring Security efter en lyckad inloggning när hashen har lägre BCrypt-kostnad än den
+    // konfigurerade (app.security.password.bcrypt-strength): sparar den nya hashen och uppdaterar cachen
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        users.updatePasswordByUsername(user.getUsername(), newPassword);
+        var updated = User.withUserDetails(user).password(newPassword).build();
+        userCache.putUserInCache(updated);
+        return updated;
     }
-}
\ No newline at end of file
+}
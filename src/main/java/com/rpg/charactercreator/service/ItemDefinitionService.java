@@ -0,0 +1,121 @@
+package com.rpg.charactercreator.service;
+
+import com.rpg.charactercreator.dto.InventoryItemDTO;
+import com.rpg.charactercreator.exception.InvalidQuantityException;
+import com.rpg.charactercreator.model.InventoryItem;
+import com.rpg.charactercreator.model.ItemDefinition;
+import com.rpg.charactercreator.repository.ItemDefinitionRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 🏷️ Slår upp (och skapar vid behov) delade föremålsdefinitioner för inventory-staplar.
+ * Anropas inifrån skrivande transaktioner; nya definitioner skrivs i samma batch som staplarna.
+ */
+@Service
+public class ItemDefinitionService {
+
+    private final ItemDefinitionRepository definitionRepository;
+
+    public ItemDefinitionService(ItemDefinitionRepository definitionRepository) {
+        this.definitionRepository = definitionRepository;
+    }
+
+    /**
+     * Nyckeln för en definition. Saknad beskrivning blir "" (samma som i databasen).
+     */
+    public record Key(String name, String description) {
+        public static Key of(InventoryItemDTO item) {
+            return new Key(item.getName(), item.getDescription() == null ? "" : item.getDescription());
+        }
+    }
+
+    /**
+     * Slår ihop items till staplar: en nyckel per föremål med summerat antal (minst 1 per item),
+     * i den ordning föremålen först förekommer. En stapel över MAX_QUANTITY => InvalidQuantityException.
+     */
+    public static Map<Key, Integer> stack(Collection<InventoryItemDTO> items) {
+        Map<Key, Integer> stacks = new LinkedHashMap<>();
+        for (InventoryItemDTO item : items) {
+            Key key = Key.of(item);
+            stacks.merge(key, checked(key, Math.max(1, item.getQuantity())), (a, b) -> checked(key, a + b));
+        }
+        return stacks;
+    }
+
+    /**
+     * Kontrollerar staplarna som items blir, med samma skiftlägesokänsliga matchning som resolve,
+     * utan att slå upp något – för validering innan skrivningen (t.ex. startföremål).
+     */
+    public static void checkStackSizes(Collection<InventoryItemDTO> items) {
+        Map<Key, Integer> byLowerKey = new HashMap<>();
+        stack(items).forEach((key, quantity) -> byLowerKey.merge(lower(key), quantity, (a, b) -> checked(key, a + b)));
+    }
+
+    /**
+     * Staplar per definition: som stack(items), men nycklar som leder till samma definition (resolve ignorerar
+     * skiftläge, så "Sword" och "sword") summeras till en stapel – annars blir det två rader mot samma unika nyckel.
+     */
+    public static Map<ItemDefinition, Integer> stack(Collection<InventoryItemDTO> items, Map<Key, ItemDefinition> definitions) {
+        return byDefinition(stack(items), definitions);
+    }
+
+    /**
+     * Slår upp (eller skapar) definitionerna för items och returnerar staplar per definition.
+     */
+    public Map<ItemDefinition, Integer> resolveStacks(Collection<InventoryItemDTO> items) {
+        Map<Key, Integer> stacks = stack(items);
+        return byDefinition(stacks, resolve(stacks.keySet()));
+    }
+
+    private static Map<ItemDefinition, Integer> byDefinition(Map<Key, Integer> stacks, Map<Key, ItemDefinition> definitions) {
+        Map<ItemDefinition, Integer> byDefinition = new LinkedHashMap<>();
+        stacks.forEach((key, quantity) -> byDefinition.merge(definitions.get(key), quantity, (a, b) -> checked(key, a + b)));
+        return byDefinition;
+    }
+
+    /**
+     * Definitioner för alla nycklar: en SELECT på namnen, saknade skapas (pooled id, batchad INSERT vid flush).
+     * Matchningen ignorerar skiftläge, som MySQL:s standard-collation gör för den unika nyckeln.
+     */
+    public Map<Key, ItemDefinition> resolve(Collection<Key> keys) {
+        Map<Key, ItemDefinition> definitions = new HashMap<>();
+        if (keys.isEmpty()) return definitions;
+
+        Map<Key, ItemDefinition> byLowerKey = new HashMap<>();
+        List<String> names = keys.stream().map(Key::name).distinct().toList();
+        for (ItemDefinition definition : definitionRepository.findByNameIn(names)) {
+            byLowerKey.putIfAbsent(lower(new Key(definition.getName(), definition.getDescription())), definition);
+        }
+
+        List<ItemDefinition> created = new ArrayList<>();
+        for (Key key : keys) {
+            definitions.put(key, byLowerKey.computeIfAbsent(lower(key), k -> {
+                ItemDefinition definition = new ItemDefinition(key.name(), key.description());
+                created.add(definition);
+                return definition;
+            }));
+        }
+        definitionRepository.saveAll(created);
+        return definitions;
+    }
+
+    // Två tillåtna antal (<= MAX_QUANTITY) kan inte räkna över int, så en jämförelse räcker
+    private static int checked(Key key, int quantity) {
+        if (quantity > InventoryItem.MAX_QUANTITY) {
+            throw new InvalidQuantityException(key.name(), InventoryItem.MAX_QUANTITY);
+        }
+        return quantity;
+    }
+
+    private static Key lower(Key key) {
+        return new Key(key.name().toLowerCase(Locale.ROOT), key.description().toLowerCase(Locale.ROOT));
+    }
+}
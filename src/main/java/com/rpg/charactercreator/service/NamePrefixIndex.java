@@ -0,0 +1,82 @@
+package com.rpg.charactercreator.service;
+
+import com.rpg.charactercreator.dto.NameSuggestionDTO;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 🔤 Sorterat prefix-index (namn -> id) för autocomplete.
+ * Namnen ligger sorterade i en skip-list, så en prefix-sökning är en binärsökning
+ * till första träffen följt av en kort iteration – inga databasanrop.
+ * Trådsäkert och uppdateras inkrementellt (O(log n) per ändring).
+ */
+public class NamePrefixIndex {
+
+    private final ConcurrentSkipListMap<String, NameSuggestionDTO> entries = new ConcurrentSkipListMap<>();
+    private final Map<Long, String> keysById = new ConcurrentHashMap<>();
+
+    /** Lägg till eller byt namn för ett id (oförändrat namn => ingen ändring). */
+    public void put(Long id, String name) {
+        String key = name == null ? null : key(name, id);
+        if (key != null && key.equals(keysById.get(id))) return;
+        remove(id);
+        if (key == null) return;
+        entries.put(key, new NameSuggestionDTO(id, name));
+        keysById.put(id, key);
+    }
+
+    /** Ta bort ett id ur indexet. */
+    public void remove(Long id) {
+        String key = keysById.remove(id);
+        if (key != null) {
+            entries.remove(key);
+        }
+    }
+
+    /** Töm indexet (inför ombyggnad). */
+    public void clear() {
+        entries.clear();
+        keysById.clear();
+    }
+
+    /** Id:n som finns i indexet (levande vy). */
+    public Set<Long> ids() {
+        return Collections.unmodifiableSet(keysById.keySet());
+    }
+
+    public int size() {
+        return keysById.size();
+    }
+
+    /**
+     * Max limit namn som börjar på prefix (case-insensitive), i alfabetisk ordning.
+     */
+    public List<NameSuggestionDTO> suggest(String prefix, int limit) {
+        String from = normalize(prefix);
+        NavigableMap<String, NameSuggestionDTO> range = entries.subMap(from, true, from + Character.MAX_VALUE, false);
+
+        List<NameSuggestionDTO> result = new ArrayList<>(Math.min(limit, 16));
+        for (NameSuggestionDTO suggestion : range.values()) {
+            if (result.size() >= limit) break;
+            result.add(suggestion);
+        }
+        return result;
+    }
+
+    /** Nyckel = normaliserat namn + id, så att dubbletter av samma namn får plats. */
+    private static String key(String name, Long id) {
+        return normalize(name) + '\u0000' + String.format("%019d", id);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+}
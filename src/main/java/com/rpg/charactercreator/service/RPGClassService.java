@@ -1,33 +1,49 @@
 package com.rpg.charactercreator.service;
 
+import com.rpg.charactercreator.dto.BulkUpdateResultDTO;
 import com.rpg.charactercreator.dto.ClassWithSkillsDTO;
+import com.rpg.charactercreator.dto.NameSuggestionDTO;
 import com.rpg.charactercreator.dto.StartingItemDTO;
-import com.rpg.charactercreator.model.StartingItem;
 import com.rpg.charactercreator.model.RPGClass;
 import com.rpg.charactercreator.model.Skill;
 import com.rpg.charactercreator.dto.SkillDTO;
 import com.rpg.charactercreator.repository.RPGClassRepository;
-import com.rpg.charactercreator.repository.StartingItemRepository;
+import org.hibernate.Hibernate;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * 🧙‍♂️ Service-klass för hantering av RPG-klasser och deras färdigheter.
+ * Läsningar svaras från katalog-bilden (ClassCatalogService); skrivningar byter bilden efter commit.
  */
 @Service
 public class RPGClassService {
     private final RPGClassRepository classRepository;
-    private final StartingItemRepository startingItemRepository;
+    private final ClassCatalogService catalogService;
+    private final NamePrefixIndex classNameIndex = new NamePrefixIndex();
 
-    public RPGClassService(RPGClassRepository classRepository, StartingItemRepository startingItemRepository) {
+    public RPGClassService(RPGClassRepository classRepository, ClassCatalogService catalogService) {
         this.classRepository = classRepository;
-        this.startingItemRepository = startingItemRepository;
+        this.catalogService = catalogService;
+        // Varje ny katalog-bild (även skrivningar från andra noder) synkar autocomplete-indexet
+        catalogService.addListener(this::syncClassNameIndex);
     }
 
-    private void capStats(RPGClass rpgClass) {
+    // Max 5 per stat (package-private så att JMH-benchmarken når den)
+    static void capStats(RPGClass rpgClass) {
         rpgClass.setStrength(Math.min(rpgClass.getStrength(), 5));
         rpgClass.setDexterity(Math.min(rpgClass.getDexterity(), 5));
         rpgClass.setIntelligence(Math.min(rpgClass.getIntelligence(), 5));
@@ -36,38 +52,158 @@ public class RPGClassService {
         rpgClass.setCharisma(Math.min(rpgClass.getCharisma(), 5));
     }
 
+    /**
+     * 🔤 Bygg autocomplete-indexet för klassnamn vid uppstart.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadClassNameIndex() {
+        classNameIndex.clear();
+        classRepository.findAllNames().forEach(c -> classNameIndex.put(c.getId(), c.getName()));
+    }
+
+    /**
+     * Gör autocomplete-indexet likt katalog-bilden: nya/omdöpta klasser läggs in, borttagna tas bort.
+     */
+    void syncClassNameIndex(ClassCatalog catalog) {
+        Set<Long> ids = new HashSet<>();
+        for (RPGClass rpgClass : catalog.classes()) {
+            if (rpgClass.getClassId() == null) continue;
+            ids.add(rpgClass.getClassId());
+            classNameIndex.put(rpgClass.getClassId(), rpgClass.getName());
+        }
+        classNameIndex.ids().stream()
+                .filter(id -> !ids.contains(id))
+                .toList()
+                .forEach(classNameIndex::remove);
+    }
+
+    /**
+     * 🔤 Autocomplete: klassnamn som börjar på prefix (id + namn, från minnet).
+     */
+    public List<NameSuggestionDTO> suggestNames(String prefix, int limit) {
+        return classNameIndex.suggest(prefix, limit);
+    }
+
+    /** Alla klasser ur katalog-bilden (skrivskyddade kopior). */
     public List<RPGClass> findAll() {
-        return classRepository.findAll();
+        return catalogService.current().classes();
     }
 
+    /** Klass via exakt namn ur katalog-bilden (skrivskyddad kopia). */
     public Optional<RPGClass> findByName(String name) {
-        return classRepository.findByName(name);
+        return catalogService.current().findByName(name);
     }
 
     public RPGClass createClass(RPGClass rpgClass) {
         capStats(rpgClass);
-        return classRepository.save(rpgClass);
+        RPGClass saved = classRepository.save(rpgClass);
+        indexAfterCommit(saved);
+        return saved;
     }
 
     public Optional<RPGClass> findById(Long id) {
         return classRepository.findById(id);
     }
 
+    /**
+     * ✏️ Selektiv uppdatering av en klass (null betyder "lämna oförändrat", stats skrivs alltid).
+     * Skills och vapen initieras i transaktionen så att svaret kan serialiseras efteråt.
+     */
+    @Transactional
+    public Optional<RPGClass> updateClass(Long id, RPGClass changes) {
+        return classRepository.findById(id).map(existing -> {
+            applyChanges(existing, changes);
+            RPGClass saved = save(existing);
+            Hibernate.initialize(saved.getSkillList());
+            Hibernate.initialize(saved.getWeapons());
+            return saved;
+        });
+    }
+
+    /**
+     * ✏️ Batch-uppdatering: alla klasser laddas med en IN-query, ändringarna (och capStats) läggs på
+     * och skrivs som en JDBC-batch när transaktionen committas. Katalogen läses om en gång.
+     * Ger ett resultat per element i samma ordning (UPDATED eller NOT_FOUND).
+     */
+    @Transactional
+    public List<BulkUpdateResultDTO> updateClasses(List<RPGClass> changes) {
+        List<Long> ids = changes.stream()
+                .map(RPGClass::getClassId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Long, RPGClass> existingById = classRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(RPGClass::getClassId, Function.identity()));
+
+        List<BulkUpdateResultDTO> results = new ArrayList<>(changes.size());
+        Map<Long, String> names = new HashMap<>();
+        for (int i = 0; i < changes.size(); i++) {
+            RPGClass change = changes.get(i);
+            RPGClass existing = change.getClassId() == null ? null : existingById.get(change.getClassId());
+            if (existing == null) {
+                results.add(new BulkUpdateResultDTO(i, change.getClassId(), BulkUpdateResultDTO.NOT_FOUND));
+                continue;
+            }
+            applyChanges(existing, change);
+            capStats(existing);
+            names.put(existing.getClassId(), existing.getName());
+            results.add(new BulkUpdateResultDTO(i, existing.getClassId(), BulkUpdateResultDTO.UPDATED));
+        }
+
+        if (!existingById.isEmpty()) {
+            // Namnbyten når autocomplete-indexet först när batchen committats
+            catalogService.refreshAfterCommit(() -> names.forEach(classNameIndex::put));
+        }
+        return results;
+    }
+
+    private static void applyChanges(RPGClass existing, RPGClass changes) {
+        if (changes.getName() != null) existing.setName(changes.getName());
+        if (changes.getDescription() != null) existing.setDescription(changes.getDescription());
+        if (changes.getArmorType() != null) existing.setArmorType(changes.getArmorType());
+        if (changes.getRole() != null) existing.setRole(changes.getRole());
+        if (changes.getWeapons() != null && !changes.getWeapons().isEmpty()) {
+            existing.setWeapons(changes.getWeapons());
+        }
+
+        // Bas-stats (om de är primitiva kan 0 tolkas som “sätt 0”)
+        existing.setStrength(changes.getStrength());
+        existing.setDexterity(changes.getDexterity());
+        existing.setIntelligence(changes.getIntelligence());
+        existing.setConstitution(changes.getConstitution());
+        existing.setWisdom(changes.getWisdom());
+        existing.setCharisma(changes.getCharisma());
+    }
+
     public RPGClass save(RPGClass rpgClass) {
         capStats(rpgClass);
-        return classRepository.save(rpgClass);
+        RPGClass saved = classRepository.save(rpgClass);
+        indexAfterCommit(saved);
+        return saved;
     }
 
     public List<RPGClass> saveAll(List<RPGClass> classes) {
-        return classRepository.saveAll(classes);
+        List<RPGClass> saved = classRepository.saveAll(classes);
+        Map<Long, String> names = new HashMap<>();
+        saved.forEach(c -> names.put(c.getClassId(), c.getName()));
+        catalogService.refreshAfterCommit(() -> names.forEach(classNameIndex::put));
+        return saved;
     }
 
     public void deleteById(Long id) {
         classRepository.deleteById(id);
+        catalogService.refreshAfterCommit(() -> classNameIndex.remove(id));
+    }
+
+    // Autocomplete-indexet uppdateras tillsammans med katalogen, efter commit (namnet läses nu)
+    private void indexAfterCommit(RPGClass saved) {
+        Long id = saved.getClassId();
+        String name = saved.getName();
+        catalogService.refreshAfterCommit(() -> classNameIndex.put(id, name));
     }
 
     public Optional<ClassWithSkillsDTO> getClassWithSkills(String name) {
-        Optional<RPGClass> optionalClass = classRepository.findByNameWithSkills(name);
+        Optional<RPGClass> optionalClass = catalogService.current().findByNameIgnoreCase(name);
         if (optionalClass.isEmpty()) {
             return Optional.empty();
         }
@@ -85,7 +221,7 @@ public class RPGClassService {
         dto.setCharisma(rpgClass.getCharisma());
         dto.setRole(rpgClass.getRole());
         dto.setArmorType(rpgClass.getArmorType());
-        dto.setWeapons(rpgClass.getWeapons());
+        dto.setWeapons(new ArrayList<>(rpgClass.getWeapons()));
 
         List<SkillDTO> skillDTOs = mapToSkillDTOList(rpgClass.getSkillList());
         dto.setSkills(skillDTOs);
@@ -103,17 +239,12 @@ public class RPGClassService {
      * 📦 Hämta startföremål för en given klass.
      */
     public List<StartingItemDTO> getStartingItemsForClass(String className) {
-        Optional<RPGClass> rpgClassOpt = classRepository.findByName(className);
-
-        if (rpgClassOpt.isEmpty()) {
+        ClassCatalog catalog = catalogService.current();
+        if (catalog.findByName(className).isEmpty()) {
             return List.of(); // eller kasta exception
         }
 
-        List<StartingItem> items = startingItemRepository.findByRpgClassNameIgnoreCase(className);
-
-        return items.stream()
-                .map(item -> new StartingItemDTO(item.getName(), item.getDescription()))
-                .collect(Collectors.toList());
+        return catalog.startingItemsFor(className);
     }
     /**
      * 🔁 Konvertera RPGClass till DTO med extra info (roll, armorType, weapons)
@@ -130,7 +261,7 @@ public class RPGClassService {
         dto.setCharisma(rpgClass.getCharisma());
         dto.setRole(rpgClass.getRole());
         dto.setArmorType(rpgClass.getArmorType());
-        dto.setWeapons(rpgClass.getWeapons());
+        dto.setWeapons(new ArrayList<>(rpgClass.getWeapons()));
         dto.setSkills(mapToSkillDTOList(rpgClass.getSkillList()));
         return dto;
     }
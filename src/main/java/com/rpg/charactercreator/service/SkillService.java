@@ -7,6 +7,7 @@ import com.rpg.charactercreator.model.Skill;
 import com.rpg.charactercreator.repository.CharacterRepository;
 import com.rpg.charactercreator.repository.SkillRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -15,27 +16,35 @@ public class SkillService {
 
     private final SkillRepository skillRepository;
     private final CharacterRepository characterRepository;
+    private final ClassCatalogService catalogService;
 
-    public SkillService(SkillRepository skillRepository, CharacterRepository characterRepository) {
+    public SkillService(SkillRepository skillRepository, CharacterRepository characterRepository,
+                        ClassCatalogService catalogService) {
         this.skillRepository = skillRepository;
         this.characterRepository = characterRepository;
+        this.catalogService = catalogService;
     }
 
+    /** Alla skills ur katalog-bilden (skrivskyddade kopior). */
     public List<Skill> findAll() {
-        return skillRepository.findAll();
+        return catalogService.current().skills();
     }
 
     public Skill save(Skill skill) {
-        return skillRepository.save(skill);
+        Skill saved = skillRepository.save(skill);
+        catalogService.refreshAfterCommit();
+        return saved;
     }
 
     public void deleteById(Long id) {
         skillRepository.deleteById(id);
+        catalogService.refreshAfterCommit();
     }
 
     /**
      * Lägg till en befintlig skill till en specifik karaktär.
      */
+    @Transactional
     public void addSkillToCharacter(Long characterId, Long skillId) {
         Character character = characterRepository.findById(characterId)
                 .orElseThrow(() -> new CharacterNotFoundException(characterId));
@@ -0,0 +1,128 @@
+package com.rpg.charactercreator.service;
+
+import com.rpg.charactercreator.dto.CacheStatsDTO;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 🔑 Begränsad TTL-cache av UserDetails per användarnamn, så att inloggningar inte behöver
+ * läsa users + roller varje gång. Äldst använda posten trängs undan när cachen är full.
+ * Både lagring och utlämning sker med kopior: Spring Security raderar lösenordet i det
+ * UserDetails som autentiseringen fick (eraseCredentials), och det får aldrig nå cachen.
+ * Nyckeln är användarnamnet i gemener (MySQL jämför användarnamn oavsett skiftläge).
+ * Cachen finns per nod och töms bara lokalt; TTL 0 stänger av den (bean i SecurityConfig).
+ */
+public class UserDetailsCache implements UserCache {
+
+    public static final String NAME = "user-details";
+    static final Duration TTL = Duration.ofMinutes(5);
+    static final int MAX_ENTRIES = 10_000;
+
+    private record Entry(UserDetails user, long expiresAt) { }
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+
+    public UserDetailsCache(Duration ttl) {
+        this(ttl, System::nanoTime);
+    }
+
+    UserDetailsCache(LongSupplier clock) {
+        this(TTL, clock);
+    }
+
+    UserDetailsCache(Duration ttl, LongSupplier clock) {
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+    }
+
+    /** En kopia av den cachade användaren, eller null (saknas/utgången). */
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        if (username == null) return null;
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key(username));
+            if (entry != null && clock.getAsLong() - entry.expiresAt() >= 0) {
+                entries.remove(key(username));
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return copy(entry.user());
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        if (ttlNanos <= 0) return; // avstängd: varje inloggning läser databasen
+        Entry entry = new Entry(copy(user), clock.getAsLong() + ttlNanos);
+        synchronized (entries) {
+            entries.put(key(user.getUsername()), entry);
+        }
+        puts.increment();
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        if (username == null) return;
+        synchronized (entries) {
+            entries.remove(key(username));
+        }
+    }
+
+    /**
+     * Ta bort användaren nu och igen när pågående transaktion committats, så att en inloggning
+     * som hinner läsa den gamla raden under transaktionen inte lämnar kvar en inaktuell post.
+     */
+    public void removeUserFromCacheAfterCommit(String username) {
+        removeUserFromCache(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeUserFromCache(username);
+                }
+            });
+        }
+    }
+
+    /** Träffar/missar sedan uppstart (för att dimensionera cachen efter inloggningstoppar). */
+    public CacheStatsDTO stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStatsDTO(NAME, hits.sum(), misses.sum(), puts.sum(), size);
+    }
+
+    private static UserDetails copy(UserDetails user) {
+        return User.withUserDetails(user).build();
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+}
@@ -23,11 +23,14 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final RoleRepository roleRepository;
+    private final UserDetailsCache userDetailsCache;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, RoleRepository roleRepository) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, RoleRepository roleRepository,
+                       UserDetailsCache userDetailsCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.roleRepository = roleRepository;
+        this.userDetailsCache = userDetailsCache;
     }
 
     public Optional<User> findByEmail(String email) {
@@ -38,11 +41,47 @@ public class UserService {
         return userRepository.findByUsername(username);
     }
 
+    /** Användare som DTO via e-post (projektion, inga entiteter). */
+    public Optional<UserDTO> findDTOByEmail(String email) {
+        return userRepository.findDTOByEmail(email);
+    }
+
+    /** Användare som DTO via användarnamn (projektion, inga entiteter). */
+    public Optional<UserDTO> findDTOByUsername(String username) {
+        return userRepository.findDTOByUsername(username);
+    }
+
+    /** Alla användare som DTO (projektion, en query). */
+    public List<UserDTO> findAllDTOs() {
+        return userRepository.findAllAsDTO();
+    }
+
     public User createUser(User user) {
         if (userRepository.existsByEmail(user.getEmail())) {
             throw new UserAlreadyExistsException(user.getEmail());
         }
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userDetailsCache.removeUserFromCacheAfterCommit(saved.getUsername());
+        return saved;
+    }
+
+    /**
+     * ✏️ Uppdatera username och email. Inloggningscachen töms för både gamla och nya namnet,
+     * och utfärdade stateless-tokens spärras (token_version ökas).
+     */
+    @Transactional
+    public Optional<UserDTO> updateUser(Long id, String username, String email) {
+        return userRepository.findById(id).map(user -> {
+            if (email != null && !email.equalsIgnoreCase(user.getEmail()) && userRepository.existsByEmail(email)) {
+                throw new UserAlreadyExistsException(email);
+            }
+            userDetailsCache.removeUserFromCacheAfterCommit(user.getUsername());
+            user.setUsername(username);
+            user.setEmail(email);
+            user.setTokenVersion(user.getTokenVersion() + 1);
+            userDetailsCache.removeUserFromCacheAfterCommit(username);
+            return toDTO(user);
+        });
     }
 
     public Optional<User> findById(Long id) {
@@ -91,14 +130,20 @@ public class UserService {
                 .orElseGet(() -> roleRepository.save(new Role("ROLE_USER")));
         user.getRoles().add(userRole);
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userDetailsCache.removeUserFromCacheAfterCommit(saved.getUsername()); // roller/lösenord ändrade
+        return saved;
     }
 
     public List<User> findAll() {
         return userRepository.findAll();
     }
 
+    @Transactional
     public void deleteById(Long id) {
-        userRepository.deleteById(id);
+        userRepository.findById(id).ifPresent(user -> {
+            userRepository.delete(user);
+            userDetailsCache.removeUserFromCacheAfterCommit(user.getUsername());
+        });
     }
 }
\ No newline at end of file
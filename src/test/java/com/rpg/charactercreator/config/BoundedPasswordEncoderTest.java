@@ -0,0 +1,88 @@
+package com.rpg.charactercreator.config;
+
+// 📦 Egna klasser
+import com.rpg.charactercreator.exception.PasswordHashingBusyException;
+
+// 📦 JUnit
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ✅ Enhetstest för BoundedPasswordEncoder: hashning i poolen, snabb avvisning och kostnadsuppgradering.
+ */
+public class BoundedPasswordEncoderTest {
+
+    private final BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(4, 1, 1, Duration.ofSeconds(5));
+
+    @AfterEach
+    void tearDown() {
+        encoder.close();
+    }
+
+    /**
+     * 🔐 encode/matches fungerar som vanlig BCrypt och räknas i statistiken.
+     */
+    @Test
+    void encodeAndMatches_shouldRunInPool() {
+        String hash = encoder.encode("secret");
+
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertEquals(3, encoder.stats().getCompleted());
+        assertEquals(0, encoder.stats().getRejected());
+    }
+
+    /**
+     * ⏳ En upptagen tråd + full kö => nästa anrop avvisas direkt i stället för att vänta.
+     */
+    @Test
+    void run_shouldRejectFastWhenSaturated() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> busy = CompletableFuture.supplyAsync(() -> encoder.run(() -> {
+            started.countDown();
+            awaitQuietly(release);
+            return null;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("queued"));
+        while (encoder.stats().getQueueDepth() == 0) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("rejected"));
+        assertEquals(1, encoder.stats().getRejected());
+
+        release.countDown();
+        busy.get(5, TimeUnit.SECONDS);
+        assertTrue(encoder.matches("queued", queued.get(5, TimeUnit.SECONDS)));
+    }
+
+    /**
+     * ⬆️ Hashar med lägre kostnad än den konfigurerade ska hashas om (vid nästa inloggning).
+     */
+    @Test
+    void upgradeEncoding_shouldFlagWeakerHashes() {
+        try (BoundedPasswordEncoder stronger = new BoundedPasswordEncoder(5, 1, 1, Duration.ofSeconds(5))) {
+            String weak = encoder.encode("secret");
+
+            assertTrue(stronger.upgradeEncoding(weak));
+            assertFalse(stronger.upgradeEncoding(stronger.encode("secret")));
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
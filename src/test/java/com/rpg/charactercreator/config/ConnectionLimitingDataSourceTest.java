@@ -0,0 +1,114 @@
+package com.rpg.charactercreator.config;
+
+// 📦 JUnit, Mockito & Spring
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ✅ Enhetstest för ConnectionLimitingDataSource (JDBC-begränsaren framför connection-poolen).
+ */
+public class ConnectionLimitingDataSourceTest {
+
+    private DataSource pool;
+    private ConnectionLimitingDataSource limiter;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        pool = mock(DataSource.class);
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        limiter = new ConnectionLimitingDataSource(pool, 1, Duration.ofMillis(50));
+    }
+
+    /**
+     * 🚦 Alla tillstånd upptagna => en annan tråd ger upp efter timeout, utan att ens fråga poolen.
+     */
+    @Test
+    void getConnection_shouldTimeOutWhenAllPermitsAreInUse() throws Exception {
+        Connection first = limiter.getConnection();
+
+        CompletableFuture<Connection> other = CompletableFuture.supplyAsync(this::connect);
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> other.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(SQLTransientConnectionException.class, failure.getCause());
+        verify(pool, times(1)).getConnection();
+        assertEquals(1, limiter.stats().getInUse());
+        assertEquals(1, limiter.stats().getTimedOut());
+
+        first.close();
+        CompletableFuture.supplyAsync(this::connect).get(5, TimeUnit.SECONDS).close();
+        assertEquals(0, limiter.inUse());
+    }
+
+    /**
+     * 🔁 Dubbel close() lämnar bara tillbaka ett tillstånd; fel från poolen lämnar också tillbaka det.
+     */
+    @Test
+    void close_shouldReleaseExactlyOnce() throws SQLException {
+        Connection connection = limiter.getConnection();
+        connection.close();
+        connection.close();
+        assertEquals(0, limiter.inUse());
+
+        when(pool.getConnection()).thenThrow(new SQLException("pool down"));
+        assertThrows(SQLException.class, limiter::getConnection);
+        assertEquals(0, limiter.inUse());
+    }
+
+    /**
+     * 🔁 En tråd som redan har en anslutning (t.ex. id-block-hämtning mitt i en insert) väntar inte på spärren.
+     */
+    @Test
+    void getConnection_shouldLetNestedConnectionsBypassTheLimit() throws SQLException {
+        Connection outer = limiter.getConnection();
+
+        Connection nested = limiter.getConnection();
+        nested.close();
+        assertEquals(1, limiter.inUse());
+
+        outer.close();
+        assertEquals(0, limiter.inUse());
+        Connection next = limiter.getConnection(); // räknaren är nollställd: nästa yttre anslutning tar ett tillstånd igen
+        assertEquals(1, limiter.inUse());
+        next.close();
+        assertEquals(2, limiter.stats().getAcquired());
+    }
+
+    /**
+     * 🛑 Utan reserv åt id-block-hämtningarna (eller med hela poolen som reserv) startar inte appen.
+     */
+    @Test
+    void postProcessor_shouldRejectReserveOutsideThePool() {
+        for (String reserved : new String[]{"0", "10"}) {
+            MockEnvironment environment = new MockEnvironment()
+                    .withProperty("app.jdbc.limiter.reserved-connections", reserved);
+            assertThrows(IllegalStateException.class, () -> ConnectionLimiterConfig
+                    .connectionLimitingDataSourcePostProcessor(environment)
+                    .postProcessAfterInitialization(pool, "dataSource"));
+        }
+
+        Object wrapped = ConnectionLimiterConfig.connectionLimitingDataSourcePostProcessor(new MockEnvironment())
+                .postProcessAfterInitialization(pool, "dataSource");
+        assertInstanceOf(ConnectionLimitingDataSource.class, wrapped);
+    }
+
+    private Connection connect() {
+        try {
+            return limiter.getConnection();
+        } catch (SQLException e) {
+            throw new CompletionException(e);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.rpg.charactercreator.config;
+
+// 📦 Modeller
+import com.rpg.charactercreator.model.Character;
+import com.rpg.charactercreator.model.ItemDefinition;
+import com.rpg.charactercreator.model.User;
+
+// 📦 JUnit & Spring
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ✅ Migreringen från en inventory-rad per föremål till staplar, mot en in-memory databas.
+ * Det gamla schemat återskapas genom att name/description läggs tillbaka på inventory_item.
+ * Testerna committar på riktigt (DDL går inte att rulla tillbaka) och städar efter sig.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class InventoryStackMigrationTest {
+
+    private static final String ARMOR = "Traveler's Armor";
+    private static final String ARMOR_DESCRIPTION = "Basic armor for your class.";
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbcTemplate;
+    private InventoryStackMigration migration;
+    private Long armorId;
+    private Long heroId;
+    private Long sidekickId;
+
+    /**
+     * 🔧 Två karaktärer, en befintlig definition och gamla kolumner på inventory_item.
+     */
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        migration = new InventoryStackMigration(jdbcTemplate, transactionManager, null);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User user = new User();
+            user.setUsername("legacy");
+            user.setEmail("legacy@example.com");
+            user.setPassword("secret");
+            entityManager.persist(user);
+
+            heroId = persistCharacter("Hero", user);
+            sidekickId = persistCharacter("Sidekick", user);
+
+            ItemDefinition armor = new ItemDefinition(ARMOR, ARMOR_DESCRIPTION);
+            entityManager.persist(armor);
+            armorId = armor.getId();
+        });
+
+        jdbcTemplate.execute("ALTER TABLE inventory_item ADD COLUMN name VARCHAR(255)");
+        jdbcTemplate.execute("ALTER TABLE inventory_item ADD COLUMN description VARCHAR(255)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM inventory_item");
+        jdbcTemplate.update("DELETE FROM item_definitions");
+        jdbcTemplate.update("DELETE FROM characters");
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.execute("ALTER TABLE inventory_item DROP COLUMN IF EXISTS name");
+        jdbcTemplate.execute("ALTER TABLE inventory_item DROP COLUMN IF EXISTS description");
+    }
+
+    /**
+     * 🎒 Identiska rader per karaktär blir en stapel; befintliga definitioner återanvänds.
+     */
+    @Test
+    void afterPropertiesSet_shouldCollapseLegacyRowsIntoStacks() {
+        insertLegacy(1001, heroId, ARMOR, ARMOR_DESCRIPTION);
+        insertLegacy(1002, heroId, ARMOR, ARMOR_DESCRIPTION);
+        insertLegacy(1003, heroId, "Potion", null);
+        insertLegacy(1004, heroId, "potion", null); // samma föremål oavsett skiftläge
+        insertLegacy(1005, heroId, ARMOR, ARMOR_DESCRIPTION);
+        insertLegacy(1006, sidekickId, ARMOR, ARMOR_DESCRIPTION);
+
+        migration.afterPropertiesSet();
+
+        List<Map<String, Object>> heroStacks = jdbcTemplate.queryForList(
+                "SELECT id, definition_id, quantity FROM inventory_item WHERE character_id = ? ORDER BY id", heroId);
+        assertEquals(2, heroStacks.size());
+        assertEquals(1001L, ((Number) heroStacks.get(0).get("id")).longValue());
+        assertEquals(armorId, ((Number) heroStacks.get(0).get("definition_id")).longValue());
+        assertEquals(3, ((Number) heroStacks.get(0).get("quantity")).intValue());
+        assertEquals(2, ((Number) heroStacks.get(1).get("quantity")).intValue());
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT quantity FROM inventory_item WHERE character_id = ? AND definition_id = ?",
+                Integer.class, sidekickId, armorId));
+        assertEquals(List.of("Potion", ARMOR), jdbcTemplate.queryForList(
+                "SELECT name FROM item_definitions ORDER BY name", String.class));
+        assertEquals("", jdbcTemplate.queryForObject(
+                "SELECT description FROM item_definitions WHERE name = 'Potion'", String.class));
+    }
+
+    /**
+     * 🔁 När de gamla kolumnerna är borta gör migreringen ingenting.
+     */
+    @Test
+    void afterPropertiesSet_shouldDropLegacyColumnsAndBeIdempotent() {
+        insertLegacy(1001, heroId, ARMOR, ARMOR_DESCRIPTION);
+
+        migration.afterPropertiesSet();
+        migration.afterPropertiesSet();
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM inventory_item", Integer.class));
+        Map<String, Object> stack = jdbcTemplate.queryForMap("SELECT * FROM inventory_item");
+        assertFalse(stack.keySet().stream().anyMatch(column -> column.equalsIgnoreCase("name")));
+    }
+
+    /**
+     * 🧱 Små chunkar (keyset på id) ger samma staplar: rader i senare chunkar läggs på stapeln från en
+     * tidigare chunk eller på en stapel i nya formatet, och nya definitions-id:n ligger efter sekvensen.
+     */
+    @Test
+    void afterPropertiesSet_shouldMergeAcrossChunksAndAllocateIdsAfterTheSequence() {
+        jdbcTemplate.update("INSERT INTO inventory_item (id, character_id, quantity, definition_id) VALUES (900, ?, 4, ?)",
+                sidekickId, armorId); // stapel i nya formatet
+        jdbcTemplate.update("UPDATE id_sequences SET next_val = 500 WHERE sequence_name = 'item_definitions'");
+        insertLegacy(1001, heroId, "Potion", "Heals");
+        insertLegacy(1002, sidekickId, ARMOR, ARMOR_DESCRIPTION);
+        insertLegacy(1003, heroId, "Rope", "Long");
+        insertLegacy(1004, heroId, "POTION", "heals");
+        insertLegacy(1005, sidekickId, ARMOR, ARMOR_DESCRIPTION);
+
+        new InventoryStackMigration(jdbcTemplate, transactionManager, 2).afterPropertiesSet();
+
+        assertEquals(List.of(Map.of("ID", 900L, "QUANTITY", 6)), jdbcTemplate.queryForList(
+                "SELECT id, quantity FROM inventory_item WHERE character_id = ?", sidekickId));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT i.quantity FROM inventory_item i JOIN item_definitions d ON d.id = i.definition_id "
+                        + "WHERE i.id = 1001 AND d.name = 'Potion'", Integer.class));
+        Long ropeId = jdbcTemplate.queryForObject("SELECT id FROM item_definitions WHERE name = 'Rope'", Long.class);
+        assertTrue(ropeId > 500);
+        assertTrue(jdbcTemplate.queryForObject(
+                "SELECT next_val FROM id_sequences WHERE sequence_name = 'item_definitions'", Long.class) > ropeId);
+    }
+
+    /**
+     * 👯 En annan nod håller låset (sekvensraden) och hinner migrera raderna: den här noden väntar,
+     * hittar under låset inga gamla rader kvar och tar bara bort kolumnerna – som redan kan vara borta.
+     * (Noden simuleras med en egen anslutning; H2 saknar MySQL:s metadata-lås, så ALTER TABLE från
+     * två anslutningar samtidigt går inte att testa här.)
+     */
+    @Test
+    void afterPropertiesSet_shouldWaitForTheLockAndRecheckLegacyColumns() throws Exception {
+        insertLegacy(1001, heroId, ARMOR, ARMOR_DESCRIPTION);
+        jdbcTemplate.update("INSERT INTO id_sequences (sequence_name, next_val) SELECT 'item_definitions', 1 "
+                + "WHERE NOT EXISTS (SELECT 1 FROM id_sequences WHERE sequence_name = 'item_definitions')");
+
+        ExecutorService node = Executors.newSingleThreadExecutor();
+        try (Connection otherNode = dataSource.getConnection()) {
+            otherNode.setAutoCommit(false);
+            try (Statement statement = otherNode.createStatement()) {
+                statement.executeQuery("SELECT next_val FROM id_sequences WHERE sequence_name = 'item_definitions' FOR UPDATE");
+
+                Future<?> run = node.submit(migration::afterPropertiesSet);
+                Thread.sleep(300);
+                assertFalse(run.isDone()); // väntar på låset
+
+                statement.executeUpdate("UPDATE inventory_item SET definition_id = " + armorId + ", quantity = 7");
+                otherNode.commit();
+
+                run.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            node.shutdownNow();
+        }
+
+        assertEquals(7, jdbcTemplate.queryForObject("SELECT quantity FROM inventory_item WHERE id = 1001", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM item_definitions", Integer.class));
+        assertFalse(jdbcTemplate.queryForMap("SELECT * FROM inventory_item").containsKey("NAME"));
+
+        migration.dropLegacyColumn("description"); // redan borttagen av "den andra noden" => inget fel
+    }
+
+    private Long persistCharacter(String name, User user) {
+        Character character = new Character();
+        character.setName(name);
+        character.setUser(user);
+        entityManager.persist(character);
+        return character.getId();
+    }
+
+    private void insertLegacy(long id, Long characterId, String name, String description) {
+        jdbcTemplate.update("INSERT INTO inventory_item (id, character_id, quantity, name, description) VALUES (?, ?, 0, ?, ?)",
+                id, characterId, name, description);
+    }
+}
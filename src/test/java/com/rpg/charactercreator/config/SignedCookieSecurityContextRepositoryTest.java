@@ -0,0 +1,200 @@
+package com.rpg.charactercreator.config;
+
+// 📦 JUnit, Mockito & Spring (mock-servlet + security)
+import jakarta.servlet.http.Cookie;
+import com.rpg.charactercreator.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * ✅ Enhetstest för SignedCookieSecurityContextRepository (stateless inloggning via signerad cookie).
+ */
+public class SignedCookieSecurityContextRepositoryTest {
+
+    private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+    private static final Duration TTL = Duration.ofMinutes(30);
+    private static final Duration CHECK_INTERVAL = Duration.ofMinutes(1);
+
+    private AtomicLong now;
+    private Map<String, SignedCookieSecurityContextRepository.Grant> users; // "databasen"
+    private SignedCookieSecurityContextRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(1_700_000_000_000L);
+        users = new HashMap<>();
+        users.put("alice", new SignedCookieSecurityContextRepository.Grant(0, List.of("ROLE_USER", "ROLE_ADMIN")));
+        repository = node();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * 🔁 Token från en nod godtas av en annan nod med samma nyckel – med användarnamn och roller.
+     */
+    @Test
+    void saveAndLoad_shouldRoundTripAcrossNodes() {
+        String token = login("alice", "ROLE_USER", "ROLE_ADMIN");
+        SignedCookieSecurityContextRepository otherNode = node();
+
+        Authentication authentication = otherNode.loadDeferredContext(requestWith(token)).get().getAuthentication();
+
+        assertNotNull(authentication);
+        assertEquals("alice", authentication.getName());
+        assertEquals(List.of("ROLE_USER", "ROLE_ADMIN"),
+                authentication.getAuthorities().stream().map(a -> a.getAuthority()).toList());
+    }
+
+    /**
+     * ❌ Ändrad payload (t.ex. tillagd admin-roll), fel nyckel eller utgången token => inte inloggad.
+     */
+    @Test
+    void load_shouldRejectTamperedForeignAndExpiredTokens() {
+        String token = login("alice", "ROLE_USER");
+        String[] parts = token.split("\\.");
+        String forged = parts[0] + '.' + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("ROLE_ADMIN".getBytes(StandardCharsets.UTF_8))
+                + '.' + parts[2] + '.' + parts[3] + '.' + parts[4] + '.' + parts[5];
+        SignedCookieSecurityContextRepository foreign = new SignedCookieSecurityContextRepository(
+                "another-secret-another-secret-xx".getBytes(StandardCharsets.UTF_8), TTL, CHECK_INTERVAL, false,
+                username -> Optional.ofNullable(users.get(username)), now::get);
+
+        assertNull(repository.loadDeferredContext(requestWith(forged)).get().getAuthentication());
+        assertNull(foreign.loadDeferredContext(requestWith(token)).get().getAuthentication());
+        assertTrue(repository.containsContext(requestWith(token)));
+
+        now.addAndGet(TTL.toMillis());
+        assertFalse(repository.containsContext(requestWith(token)));
+    }
+
+    /**
+     * 🚪 Utloggning (tom context) tar bort cookien.
+     */
+    @Test
+    void save_shouldClearCookieOnLogout() {
+        String token = login("alice", "ROLE_USER");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        repository.saveContext(new SecurityContextImpl(), requestWith(token), response);
+
+        String header = response.getHeader(HttpHeaders.SET_COOKIE);
+        assertNotNull(header);
+        assertTrue(header.startsWith(SignedCookieSecurityContextRepository.COOKIE_NAME + "=;"));
+        assertTrue(header.contains("Max-Age=0"));
+    }
+
+    /**
+     * 🛑 Stateless-läge utan delad secret startar inte (noderna skulle underkänna varandras cookies),
+     * om inte en slumpad nod-nyckel uttryckligen tillåts.
+     */
+    @Test
+    void tokenRepository_shouldRequireSecretUnlessRandomKeyIsAllowed() {
+        SecurityConfig config = new SecurityConfig();
+
+        UserRepository userRepository = mock(UserRepository.class);
+
+        assertThrows(IllegalStateException.class,
+                () -> config.tokenRepository(" ", false, TTL, CHECK_INTERVAL, false, userRepository));
+        assertNotNull(config.tokenRepository("", true, TTL, CHECK_INTERVAL, false, userRepository));
+    }
+
+    /**
+     * ⏳ Yngre token än check-intervallet godtas utan databas; äldre stäms av och förnyas med aktuella
+     * roller och ny utgång (glidande), så en aktiv användare loggas inte ut efter ttl.
+     */
+    @Test
+    void refresh_shouldRenewWithCurrentRolesAfterCheckInterval() {
+        String token = login("alice", "ROLE_USER", "ROLE_ADMIN");
+        users.put("alice", new SignedCookieSecurityContextRepository.Grant(0, List.of("ROLE_USER"))); // degraderad
+
+        MockHttpServletResponse early = new MockHttpServletResponse();
+        repository.refresh(requestWith(token), early);
+        assertNull(early.getCookie(SignedCookieSecurityContextRepository.COOKIE_NAME));
+
+        now.addAndGet(TTL.toMillis() - 1000); // nästan utgången
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        repository.refresh(requestWith(token), response);
+
+        Cookie renewed = response.getCookie(SignedCookieSecurityContextRepository.COOKIE_NAME);
+        assertNotNull(renewed);
+        assertEquals(List.of("ROLE_USER"), roles(SecurityContextHolder.getContext().getAuthentication()));
+
+        now.addAndGet(TTL.toMillis() / 2); // den gamla token har gått ut, den förnyade inte
+        assertNull(repository.readToken(requestWith(token)));
+        assertEquals(List.of("ROLE_USER"), roles(repository.readToken(requestWith(renewed.getValue()))));
+    }
+
+    /**
+     * 🚫 Ökad token-version (utloggning) eller raderad användare => cookien tas bort och requesten är utloggad.
+     */
+    @Test
+    void refresh_shouldLogOutRevokedAndDeletedUsers() {
+        String token = login("alice", "ROLE_USER");
+        now.addAndGet(CHECK_INTERVAL.toMillis());
+
+        users.put("alice", new SignedCookieSecurityContextRepository.Grant(1, List.of("ROLE_USER")));
+        MockHttpServletResponse revoked = new MockHttpServletResponse();
+        repository.refresh(requestWith(token), revoked);
+        assertTrue(revoked.getHeader(HttpHeaders.SET_COOKIE).contains("Max-Age=0"));
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+
+        users.remove("alice");
+        MockHttpServletResponse deleted = new MockHttpServletResponse();
+        repository.refresh(requestWith(token), deleted);
+        assertTrue(deleted.getHeader(HttpHeaders.SET_COOKIE).contains("Max-Age=0"));
+    }
+
+    private String login(String username, String... roles) {
+        List<SimpleGrantedAuthority> authorities = Arrays.stream(roles).map(SimpleGrantedAuthority::new).toList();
+        SecurityContext context = new SecurityContextImpl(
+                UsernamePasswordAuthenticationToken.authenticated(username, null, authorities));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        repository.saveContext(context, new MockHttpServletRequest(), response);
+
+        Cookie cookie = response.getCookie(SignedCookieSecurityContextRepository.COOKIE_NAME);
+        assertNotNull(cookie);
+        assertTrue(cookie.isHttpOnly());
+        return cookie.getValue();
+    }
+
+    private SignedCookieSecurityContextRepository node() {
+        return new SignedCookieSecurityContextRepository(SECRET, TTL, CHECK_INTERVAL, false,
+                username -> Optional.ofNullable(users.get(username)), now::get);
+    }
+
+    private static List<String> roles(Authentication authentication) {
+        return authentication.getAuthorities().stream().map(a -> a.getAuthority()).toList();
+    }
+
+    private static MockHttpServletRequest requestWith(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(SignedCookieSecurityContextRepository.COOKIE_NAME, token));
+        return request;
+    }
+}
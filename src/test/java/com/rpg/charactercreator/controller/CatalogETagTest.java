@@ -0,0 +1,134 @@
+package com.rpg.charactercreator.controller;
+
+// 📦 Modeller & services
+import com.rpg.charactercreator.model.Skill;
+import com.rpg.charactercreator.service.CatalogResponseCache;
+import com.rpg.charactercreator.service.ClassCatalog;
+import com.rpg.charactercreator.service.ClassCatalogService;
+import com.rpg.charactercreator.service.RPGClassService;
+import com.rpg.charactercreator.service.SkillService;
+
+// 📦 JUnit, Mockito, Jackson & Spring MVC
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * ✅ Conditional GET för katalog-endpoints (/classes, /skills).
+ * Testar att rätt ETag skickas, att If-None-Match ger 304 utan att katalogen läses,
+ * och att svaren serialiseras en gång per version (ren JSON eller gzip).
+ */
+public class CatalogETagTest {
+
+    private static final String ETAG = "\"catalog-42\"";
+
+    private MockMvc mockMvc;
+    private SkillService skillService;
+    private RPGClassService classService;
+    private ClassCatalogService catalogService;
+    private ClassCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        skillService = mock(SkillService.class);
+        classService = mock(RPGClassService.class);
+        catalogService = mock(ClassCatalogService.class);
+        catalog = mock(ClassCatalog.class);
+        when(catalog.version()).thenReturn(42L);
+        when(catalog.etag()).thenReturn("catalog-42");
+        when(catalogService.current()).thenReturn(catalog);
+
+        CatalogResponseCache responseCache = new CatalogResponseCache(new ObjectMapper());
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                new SkillController(skillService, catalogService, responseCache),
+                new RPGClassController(classService, catalogService, responseCache)
+        ).build();
+    }
+
+    /**
+     * 📄 Första anropet: 200 med ETag och no-cache (sparas, men valideras om varje gång).
+     * Samma version serialiseras bara en gång.
+     */
+    @Test
+    void getAllSkills_shouldSendETagAndSerializeOncePerVersion() throws Exception {
+        when(catalog.skills()).thenReturn(List.of(skill("Fireball")));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/skills"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", ETAG))
+                    .andExpect(header().string("Cache-Control", "no-cache"))
+                    .andExpect(jsonPath("$[0].name").value("Fireball"));
+        }
+
+        verify(catalog, times(1)).skills();
+    }
+
+    /**
+     * 🗜️ Accept-Encoding: gzip ger den förkomprimerade varianten med egen ETag.
+     */
+    @Test
+    void getAllSkills_shouldServeGzipVariant_whenAccepted() throws Exception {
+        when(catalog.skills()).thenReturn(List.of(skill("Fireball")));
+
+        byte[] body = mockMvc.perform(get("/skills").header("Accept-Encoding", "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(header().string("ETag", "\"catalog-42-gzip\""))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertTrue(new String(in.readAllBytes(), StandardCharsets.UTF_8).contains("\"name\":\"Fireball\""));
+        }
+        mockMvc.perform(get("/skills").header("Accept-Encoding", "gzip").header("If-None-Match", "\"catalog-42-gzip\""))
+                .andExpect(status().isNotModified());
+    }
+
+    /**
+     * 🔁 Matchande If-None-Match: 304 utan body, och katalogen läses aldrig.
+     */
+    @Test
+    void catalogEndpoints_shouldAnswer304_whenETagMatches() throws Exception {
+        for (String url : List.of("/skills", "/classes", "/classes/name/Mage", "/classes/name/Mage/starting-items")) {
+            mockMvc.perform(get(url).header("If-None-Match", ETAG))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", ETAG))
+                    .andExpect(content().string(""));
+        }
+
+        verifyNoInteractions(skillService, classService);
+        verify(catalog, never()).skills();
+        verify(catalog, never()).classes();
+    }
+
+    /**
+     * 🆕 Gammal ETag (katalogen har ändrats): fullt 200-svar.
+     */
+    @Test
+    void getAllClasses_shouldAnswer200_whenETagIsStale() throws Exception {
+        when(catalog.classes()).thenReturn(List.of());
+
+        mockMvc.perform(get("/classes").header("If-None-Match", "\"catalog-41\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", ETAG));
+    }
+
+    private static Skill skill(String name) {
+        Skill skill = new Skill();
+        skill.setName(name);
+        return skill;
+    }
+}
@@ -0,0 +1,83 @@
+package com.rpg.charactercreator.loadtest;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * 🌐 HTTP-klient som beter sig som frontend: egen cookie-burk (session/AUTH_TOKEN + XSRF-TOKEN),
+ * formulärinloggning mot /login och X-XSRF-TOKEN på alla skrivande anrop. Trådsäker.
+ */
+public final class AppClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI base;
+    private final CookieManager cookies = new CookieManager();
+    private final HttpClient http;
+
+    public AppClient(int port) {
+        this.base = URI.create("http://localhost:" + port);
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .cookieHandler(cookies)
+                .connectTimeout(TIMEOUT)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    /** POST /auth/register (undantaget från CSRF). */
+    public int register(String username, String email, String password) throws IOException, InterruptedException {
+        String json = "{\"username\":\"" + username + "\",\"email\":\"" + email + "\",\"password\":\"" + password + "\"}";
+        return send(request("/auth/register").header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))).statusCode();
+    }
+
+    /** Formulärinloggning; hämtar sedan en CSRF-cookie för kommande skrivningar. */
+    public int login(String username, String password) throws IOException, InterruptedException {
+        String form = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8);
+        int status = send(request("/login").header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))).statusCode();
+        if (status == 200) {
+            get("/csrf-token");
+        }
+        return status;
+    }
+
+    public HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return send(request(path).GET());
+    }
+
+    /** JSON-POST med CSRF-headern från XSRF-TOKEN-cookien. */
+    public HttpResponse<String> postJson(String path, String json) throws IOException, InterruptedException {
+        return send(request(path)
+                .header("Content-Type", "application/json")
+                .header("X-XSRF-TOKEN", csrfToken())
+                .POST(HttpRequest.BodyPublishers.ofString(json)));
+    }
+
+    private String csrfToken() {
+        return cookies.getCookieStore().get(base).stream()
+                .filter(c -> c.getName().equals("XSRF-TOKEN"))
+                .map(HttpCookie::getValue)
+                .findFirst()
+                .orElse("");
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).timeout(TIMEOUT);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
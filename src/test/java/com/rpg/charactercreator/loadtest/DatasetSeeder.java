@@ -0,0 +1,147 @@
+package com.rpg.charactercreator.loadtest;
+
+// 📦 DTO:er, modeller, repositories & services
+import com.rpg.charactercreator.dto.BulkCreateResultDTO;
+import com.rpg.charactercreator.dto.CharacterCreateDTO;
+import com.rpg.charactercreator.dto.InventoryItemDTO;
+import com.rpg.charactercreator.model.RPGClass;
+import com.rpg.charactercreator.model.Role;
+import com.rpg.charactercreator.model.Skill;
+import com.rpg.charactercreator.model.User;
+import com.rpg.charactercreator.repository.RPGClassRepository;
+import com.rpg.charactercreator.repository.RoleRepository;
+import com.rpg.charactercreator.repository.SkillRepository;
+import com.rpg.charactercreator.repository.UserRepository;
+import com.rpg.charactercreator.service.CharacterBulkService;
+import com.rpg.charactercreator.service.ClassCatalogService;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 🌱 Fyller en nystartad app med ett konfigurerbart dataset, direkt via appens egna beans:
+ * klasser med skills (repositories + katalog-omladdning), användare (en BCrypt-hash delas av alla)
+ * och karaktärer med startföremål (CharacterBulkService, så att namnindexet för /search byggs som vanligt).
+ */
+final class DatasetSeeder {
+
+    /** Lösenordet för alla seedade användare. */
+    static final String PASSWORD = "loadtest-password";
+
+    /** Storlek på datasetet. */
+    record Dataset(int users, int charactersPerUser, int classes, int skillsPerClass) {
+
+        /** loadtest.users, loadtest.characters-per-user, loadtest.classes, loadtest.skills-per-class. */
+        static Dataset fromSystemProperties(Dataset defaults) {
+            return new Dataset(
+                    Integer.getInteger("loadtest.users", defaults.users()),
+                    Integer.getInteger("loadtest.characters-per-user", defaults.charactersPerUser()),
+                    Integer.getInteger("loadtest.classes", defaults.classes()),
+                    Math.max(3, Integer.getInteger("loadtest.skills-per-class", defaults.skillsPerClass())));
+        }
+
+        int characters() {
+            return users * charactersPerUser;
+        }
+    }
+
+    /** Det som skapades: användarnamn och tre giltiga skill-id:n per klassnamn (för POST /characters). */
+    record Seeded(List<String> usernames, Map<String, List<Long>> skillIdsByClass) {
+    }
+
+    private DatasetSeeder() {
+    }
+
+    static Seeded seed(EmbeddedApp app, Dataset dataset) {
+        ApplicationContext context = app.context();
+        Map<String, List<Long>> skillIdsByClass = seedClasses(context, dataset);
+        List<String> usernames = seedUsers(context, dataset);
+
+        CharacterBulkService bulkService = context.getBean(CharacterBulkService.class);
+        List<String> classNames = new ArrayList<>(skillIdsByClass.keySet());
+        for (int u = 0; u < usernames.size(); u++) {
+            List<CharacterCreateDTO> characters = new ArrayList<>(dataset.charactersPerUser());
+            for (int c = 0; c < dataset.charactersPerUser(); c++) {
+                String className = classNames.get((u + c) % classNames.size());
+                characters.add(character("Hero " + u + "-" + c, className, skillIdsByClass.get(className)));
+            }
+            long failed = bulkService.createCharactersForUsername(characters, usernames.get(u)).stream()
+                    .filter(result -> !BulkCreateResultDTO.CREATED.equals(result.getStatus()))
+                    .count();
+            if (failed > 0) {
+                throw new IllegalStateException(failed + " seeded characters were not created for " + usernames.get(u));
+            }
+        }
+        return new Seeded(usernames, skillIdsByClass);
+    }
+
+    /** JSON-kompatibel CharacterCreateDTO med tre skills och två valda startföremål. */
+    static CharacterCreateDTO character(String name, String className, List<Long> skillIds) {
+        CharacterCreateDTO dto = new CharacterCreateDTO();
+        dto.setName(name);
+        dto.setClassName(className);
+        dto.setBackground("Seeded for load testing.");
+        dto.setSkillIds(skillIds);
+        dto.setStartingItems(List.of(
+                new InventoryItemDTO("Rope", "Fifty feet of hemp rope."),
+                new InventoryItemDTO("Torch", "Burns for an hour.")));
+        return dto;
+    }
+
+    private static Map<String, List<Long>> seedClasses(ApplicationContext context, Dataset dataset) {
+        RPGClassRepository classRepository = context.getBean(RPGClassRepository.class);
+        SkillRepository skillRepository = context.getBean(SkillRepository.class);
+
+        Map<String, List<Long>> skillIdsByClass = new LinkedHashMap<>();
+        for (int c = 0; c < dataset.classes(); c++) {
+            RPGClass rpgClass = new RPGClass();
+            rpgClass.setName("Class " + c);
+            rpgClass.setDescription("Load test class " + c);
+            rpgClass.setRole(c % 2 == 0 ? "tank" : "healer");
+            rpgClass.setArmorType(c % 2 == 0 ? "plate" : "cloth");
+            rpgClass.setStartingWeapon("Weapon " + c);
+            rpgClass.setStrength(3);
+            rpgClass.setDexterity(3);
+            rpgClass.setIntelligence(3);
+            rpgClass.setConstitution(3);
+            rpgClass.setWisdom(3);
+            rpgClass.setCharisma(3);
+            rpgClass.setWeapons(new ArrayList<>(List.of("Weapon " + c, "Dagger", "Staff")));
+            RPGClass saved = classRepository.save(rpgClass);
+
+            List<Skill> skills = new ArrayList<>(dataset.skillsPerClass());
+            for (int s = 0; s < dataset.skillsPerClass(); s++) {
+                Skill skill = new Skill();
+                skill.setName("Skill " + c + "-" + s);
+                skill.setDescription("Load test skill " + s + " of class " + c);
+                skill.setRpgClass(saved);
+                skills.add(skill);
+            }
+            List<Long> ids = skillRepository.saveAll(skills).stream().map(Skill::getId).toList();
+            skillIdsByClass.put(saved.getName(), ids.subList(0, 3));
+        }
+        context.getBean(ClassCatalogService.class).refresh();
+        return skillIdsByClass;
+    }
+
+    private static List<String> seedUsers(ApplicationContext context, Dataset dataset) {
+        RoleRepository roleRepository = context.getBean(RoleRepository.class);
+        Role userRole = roleRepository.findByName("ROLE_USER").orElseGet(() -> roleRepository.save(new Role("ROLE_USER")));
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+
+        List<User> users = new ArrayList<>(dataset.users());
+        for (int u = 0; u < dataset.users(); u++) {
+            User user = new User();
+            user.setUsername("user" + u);
+            user.setEmail("user" + u + "@loadtest.local");
+            user.setPassword(passwordHash);
+            user.getRoles().add(userRole);
+            users.add(user);
+        }
+        return context.getBean(UserRepository.class).saveAll(users).stream().map(User::getUsername).toList();
+    }
+}
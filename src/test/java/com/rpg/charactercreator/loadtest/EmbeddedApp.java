@@ -0,0 +1,57 @@
+package com.rpg.charactercreator.loadtest;
+
+import com.rpg.charactercreator.CharactercreatorApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 🚀 Startar hela applikationen (Tomcat på slumpad port) mot en H2-databas i minnet i MySQL-läge,
+ * så att lasttester går utan MySQL och utan nätverk. Stängs med close().
+ */
+public final class EmbeddedApp implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+    private final int port;
+
+    private EmbeddedApp(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    /** name skiljer databaserna åt när flera appar körs efter varandra i samma JVM. */
+    public static EmbeddedApp start(String name, Map<String, Object> properties) {
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put("server.port", 0);
+        defaults.put("spring.datasource.url", "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        defaults.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        defaults.put("spring.datasource.username", "sa");
+        defaults.put("spring.datasource.password", "");
+        defaults.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+        defaults.put("spring.jpa.show-sql", false);
+        defaults.put("spring.main.banner-mode", "off");
+        defaults.put("logging.level.root", "WARN");
+        defaults.putAll(properties);
+
+        // Som kommandoradsargument: de vinner över application.properties (builder.properties() gör det inte)
+        String[] args = defaults.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+        return new EmbeddedApp(new SpringApplicationBuilder(CharactercreatorApplication.class).run(args));
+    }
+
+    public ConfigurableApplicationContext context() {
+        return context;
+    }
+
+    public int port() {
+        return port;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,116 @@
+package com.rpg.charactercreator.loadtest;
+
+// 📦 JUnit & Jackson
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 📊 Release-mätning av latens end-to-end: hela appen mot H2 i MySQL-läge, seedat dataset och samtidiga
+ * inloggade klienter (egna sessioner + CSRF) mot GET /characters, POST /characters, /characters/search,
+ * /classes och inloggningsflödet. Skriver genomströmning och p50/p99/p999 till konsolen och
+ * percentil-stegar till target/loadtest/. Kräver varken MySQL eller nätverk.
+ * Körs med: mvn test -Ploadtest -Dtest=EndpointLoadTest
+ * (t.ex. -Dloadtest.clients=500 -Dloadtest.users=200 -Dloadtest.characters-per-user=100 -Dloadtest.virtual-threads=true).
+ */
+@Tag("loadtest")
+public class EndpointLoadTest {
+
+    private static final DatasetSeeder.Dataset DEFAULT_DATASET = new DatasetSeeder.Dataset(50, 40, 5, 10);
+    private static final int CLIENTS = LoadSettings.clients(200);
+    /** Inloggning är BCrypt-bunden; fler samtidiga än poolen hinner med ger (avsiktligt) 503. */
+    private static final int LOGIN_CLIENTS = Integer.getInteger("loadtest.login-clients", 8);
+    private static final Path REPORT_DIR = Path.of("target", "loadtest");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void endpointLatency() throws Exception {
+        DatasetSeeder.Dataset dataset = DatasetSeeder.Dataset.fromSystemProperties(DEFAULT_DATASET);
+        Map<String, Object> properties = Map.of("spring.threads.virtual.enabled", Boolean.getBoolean("loadtest.virtual-threads"));
+
+        try (EmbeddedApp app = EmbeddedApp.start("loadtest", properties)) {
+            DatasetSeeder.Seeded seeded = DatasetSeeder.seed(app, dataset);
+            List<AppClient> sessions = loginAll(app, seeded.usernames());
+            List<String> classNames = new ArrayList<>(seeded.skillIdsByClass().keySet());
+            int pages = Math.max(1, dataset.characters() / 20);
+            AtomicLong created = new AtomicLong();
+
+            List<LoadDriver.Result> results = new ArrayList<>();
+            results.add(run("GET /characters", CLIENTS, i -> {
+                AppClient client = sessions.get(i % sessions.size());
+                return () -> client.get("/characters?size=20&page=" + ThreadLocalRandom.current().nextInt(pages)).statusCode();
+            }));
+            results.add(run("POST /characters", CLIENTS, i -> {
+                AppClient client = sessions.get(i % sessions.size());
+                String className = classNames.get(i % classNames.size());
+                List<Long> skillIds = seeded.skillIdsByClass().get(className);
+                return () -> client.postJson("/characters", objectMapper.writeValueAsString(
+                        DatasetSeeder.character("Load " + created.incrementAndGet(), className, skillIds))).statusCode();
+            }));
+            results.add(run("GET /characters/search", CLIENTS, i -> {
+                AppClient client = sessions.get(i % sessions.size());
+                return () -> client.get("/characters/search?name=Hero%20"
+                        + ThreadLocalRandom.current().nextInt(dataset.users()) + "-1&limit=20").statusCode();
+            }));
+            results.add(run("GET /classes", CLIENTS, i -> {
+                AppClient client = sessions.get(i % sessions.size());
+                return () -> client.get("/classes").statusCode();
+            }));
+            results.add(run("login (POST /login + CSRF)", LOGIN_CLIENTS, i -> {
+                AppClient client = new AppClient(app.port());
+                String username = seeded.usernames().get(i % seeded.usernames().size());
+                return () -> client.login(username, DatasetSeeder.PASSWORD);
+            }));
+
+            report(dataset, results);
+            for (LoadDriver.Result result : results) {
+                assertTrue(result.requests() > 0, result.name() + " completed no requests");
+                assertTrue(result.errors() <= result.requests() / 100, result.name() + " error rate above 1 %");
+            }
+        }
+    }
+
+    private static LoadDriver.Result run(String name, int clients,
+                                         IntFunction<Callable<Integer>> request)
+            throws InterruptedException {
+        return LoadDriver.run(name, clients, LoadSettings.WARMUP, LoadSettings.DURATION, request);
+    }
+
+    // En klient (cookie-burk) per användare, inloggad och med CSRF-cookie
+    private static List<AppClient> loginAll(EmbeddedApp app, List<String> usernames) throws Exception {
+        List<AppClient> sessions = new ArrayList<>(usernames.size());
+        for (String username : usernames) {
+            AppClient client = new AppClient(app.port());
+            assertEquals(200, client.login(username, DatasetSeeder.PASSWORD), "login failed for " + username);
+            sessions.add(client);
+        }
+        return sessions;
+    }
+
+    private static void report(DatasetSeeder.Dataset dataset, List<LoadDriver.Result> results) throws IOException {
+        StringBuilder summary = new StringBuilder("dataset: " + dataset + "\n");
+        results.forEach(result -> summary.append(result).append('\n'));
+
+        Files.createDirectories(REPORT_DIR);
+        Files.writeString(REPORT_DIR.resolve("summary.txt"), summary);
+        for (LoadDriver.Result result : results) {
+            String file = result.name().replaceAll("[^A-Za-z0-9]+", "-").replaceAll("^-|-$", "").toLowerCase() + ".txt";
+            Files.writeString(REPORT_DIR.resolve(file), result + "\n\n" + result.latency().percentileDistribution());
+        }
+        System.out.println("\n" + summary + "Percentile distributions: " + REPORT_DIR.toAbsolutePath());
+    }
+}
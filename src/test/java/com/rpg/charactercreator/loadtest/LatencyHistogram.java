@@ -0,0 +1,93 @@
+package com.rpg.charactercreator.loadtest;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 📈 Trådsäkert latens-histogram i mikrosekunder med fast minne (log-linjära hinkar, högst ~3 % fel).
+ * Varje tvåpotens delas i 32 lika breda hinkar, så p50/p99/p999 blir exakta nog utan att spara varje mätning.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 64;
+    private static final int SUB_BUCKET_BITS = 6;
+
+    private final AtomicLongArray counts = new AtomicLongArray(SUB_BUCKETS + 58 * (SUB_BUCKETS / 2));
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void recordNanos(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        counts.incrementAndGet(index(micros));
+        total.increment();
+        sumMicros.add(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    public long count() {
+        return total.sum();
+    }
+
+    public long maxMicros() {
+        return maxMicros.get();
+    }
+
+    public double meanMicros() {
+        long n = total.sum();
+        return n == 0 ? 0 : (double) sumMicros.sum() / n;
+    }
+
+    /** Övre gränsen för hinken där percentilen (0–100) hamnar. */
+    public long percentileMicros(double percentile) {
+        long n = total.sum();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(upperBound(i), maxMicros.get());
+        }
+        return maxMicros.get();
+    }
+
+    /** T.ex. "p50=1.20ms p99=8.40ms p999=21.0ms max=30.1ms". */
+    public String summary() {
+        return "p50=" + millis(percentileMicros(50)) + " p99=" + millis(percentileMicros(99))
+                + " p999=" + millis(percentileMicros(99.9)) + " max=" + millis(maxMicros());
+    }
+
+    /** Percentil-stege (50 … 99.99, max) i millisekunder, en rad per percentil – för rapportfilen. */
+    public String percentileDistribution() {
+        StringBuilder out = new StringBuilder(String.format(Locale.ROOT, "%10s %12s%n", "percentile", "latency"));
+        for (double percentile : new double[]{50, 75, 90, 95, 99, 99.9, 99.99}) {
+            out.append(String.format(Locale.ROOT, "%10s %12s%n", percentile, millis(percentileMicros(percentile))));
+        }
+        out.append(String.format(Locale.ROOT, "%10s %12s%n", "max", millis(maxMicros())));
+        return out.toString();
+    }
+
+    // Värden under 64 µs får en egen hink var; därefter 32 hinkar per tvåpotens
+    private static int index(long micros) {
+        if (micros < SUB_BUCKETS) return (int) micros;
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int shift = exponent - SUB_BUCKET_BITS + 1;
+        int sub = (int) (micros >>> shift) - SUB_BUCKETS / 2; // 32..63 => 0..31
+        return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * (SUB_BUCKETS / 2) + sub;
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int offset = index - SUB_BUCKETS;
+        int exponent = offset / (SUB_BUCKETS / 2) + SUB_BUCKET_BITS;
+        int sub = offset % (SUB_BUCKETS / 2) + SUB_BUCKETS / 2;
+        int shift = exponent - SUB_BUCKET_BITS + 1;
+        return ((long) (sub + 1) << shift) - 1;
+    }
+
+    private static String millis(long micros) {
+        return String.format(Locale.ROOT, "%.2fms", micros / 1000.0);
+    }
+}
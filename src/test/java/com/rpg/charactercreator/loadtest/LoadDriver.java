@@ -0,0 +1,82 @@
+package com.rpg.charactercreator.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * 🏋️ Sluten last: N klienter skickar var sin request, väntar på svaret och skickar nästa, tills tiden är slut.
+ * Varje klient är en virtuell tråd, så tusentals klienter kostar inga plattformstrådar i testprocessen.
+ * Bara requests som startar efter uppvärmningen mäts.
+ */
+public final class LoadDriver {
+
+    /** Resultat för en körning. throughput = lyckade + misslyckade requests per sekund under mätningen. */
+    public record Result(String name, int clients, long requests, long errors, double seconds, LatencyHistogram latency) {
+
+        public double throughput() {
+            return requests / seconds;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-28s clients=%-5d req=%-8d err=%-6d %8.0f req/s  %s",
+                    name, clients, requests, errors, throughput(), latency.summary());
+        }
+    }
+
+    private LoadDriver() {
+    }
+
+    /**
+     * Kör last. requestForClient ger varje klient (0..clients-1) sitt anrop, som returnerar HTTP-status;
+     * 2xx/3xx räknas som lyckat, allt annat (och undantag) som fel.
+     */
+    public static Result run(String name, int clients, Duration warmup, Duration duration,
+                             IntFunction<Callable<Integer>> requestForClient) throws InterruptedException {
+        LatencyHistogram latency = new LatencyHistogram();
+        LongAdder errors = new LongAdder();
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> running = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                Callable<Integer> request = requestForClient.apply(i);
+                running.add(executor.submit(() -> {
+                    while (true) {
+                        long start = System.nanoTime();
+                        if (start >= end) return;
+                        boolean ok;
+                        try {
+                            int status = request.call();
+                            ok = status >= 200 && status < 400;
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        if (start >= measureFrom) {
+                            latency.recordNanos(System.nanoTime() - start);
+                            if (!ok) errors.increment();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> client : running) {
+                try {
+                    client.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Load client failed", e.getCause());
+                }
+            }
+        }
+        return new Result(name, clients, latency.count(), errors.sum(), duration.toNanos() / 1e9, latency);
+    }
+}
@@ -0,0 +1,23 @@
+package com.rpg.charactercreator.loadtest;
+
+import java.time.Duration;
+
+/**
+ * ⚙️ Inställningar för lasttesterna, från systemproperties (mvn ... -Dloadtest.clients=500).
+ */
+final class LoadSettings {
+
+    /** Uppvärmning innan mätningen börjar, per scenario. */
+    static final Duration WARMUP = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 5));
+
+    /** Mättid per scenario. */
+    static final Duration DURATION = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 15));
+
+    private LoadSettings() {
+    }
+
+    /** Antal samtidiga klienter (loadtest.clients), med testets eget standardvärde. */
+    static int clients(int defaultValue) {
+        return Integer.getInteger("loadtest.clients", defaultValue);
+    }
+}
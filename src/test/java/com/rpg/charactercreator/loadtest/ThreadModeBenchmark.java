@@ -0,0 +1,51 @@
+package com.rpg.charactercreator.loadtest;
+
+// 📦 JUnit
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 🧵 Jämför plattformstrådar (Tomcats fasta pool) mot virtuella trådar, båda bakom JDBC-begränsaren.
+ * Samma app, samma data och samma last (GET /characters, sida om 20 => page- och count-query mot poolen)
+ * med 1000 samtidiga klienter; skriver ut genomströmning och p50/p99/p999 per läge.
+ * Körs inte i vanliga bygget: mvn test -Ploadtest -Dtest=ThreadModeBenchmark
+ * (justera med -Dloadtest.clients=2000 -Dloadtest.duration-seconds=30).
+ */
+@Tag("loadtest")
+public class ThreadModeBenchmark {
+
+    private static final int CLIENTS = LoadSettings.clients(1000);
+    private static final DatasetSeeder.Dataset DATASET = new DatasetSeeder.Dataset(1, 500, 1, 3);
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        LoadDriver.Result platform = run("platform-threads", false);
+        LoadDriver.Result virtual = run("virtual-threads", true);
+
+        System.out.println(platform);
+        System.out.println(virtual);
+
+        for (LoadDriver.Result result : List.of(platform, virtual)) {
+            assertTrue(result.requests() > 0, result.name() + " completed no requests");
+            assertTrue(result.errors() <= result.requests() / 100, result.name() + " error rate above 1 %");
+        }
+    }
+
+    private static LoadDriver.Result run(String name, boolean virtualThreads) throws Exception {
+        try (EmbeddedApp app = EmbeddedApp.start(name, Map.of("spring.threads.virtual.enabled", virtualThreads))) {
+            DatasetSeeder.Seeded seeded = DatasetSeeder.seed(app, DATASET);
+            AppClient client = new AppClient(app.port());
+            assertEquals(200, client.login(seeded.usernames().get(0), DatasetSeeder.PASSWORD));
+
+            // En inloggad klient-session delas av alla virtuella klienttrådar (HttpClient är trådsäker)
+            int pages = DATASET.characters() / 20;
+            return LoadDriver.run(name, CLIENTS, LoadSettings.WARMUP, LoadSettings.DURATION,
+                    i -> () -> client.get("/characters?size=20&page=" + (i % pages)).statusCode());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.rpg.charactercreator.service;
+
+// 📦 DTOs och modeller
+import com.rpg.charactercreator.dto.BulkCreateResultDTO;
+import com.rpg.charactercreator.dto.CharacterCreateDTO;
+import com.rpg.charactercreator.model.Character;
+import com.rpg.charactercreator.model.RPGClass;
+import com.rpg.charactercreator.model.Skill;
+
+// 📦 Repositories
+import com.rpg.charactercreator.repository.RPGClassRepository;
+import com.rpg.charactercreator.repository.SkillRepository;
+import com.rpg.charactercreator.repository.StartingItemRepository;
+import com.rpg.charactercreator.repository.UserRepository;
+
+// 📦 JUnit, Mockito & Hibernate
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * ✅ Enhetstest för CharacterBulkService.
+ * Testar att ett databasfel i en chunk ger FAILED för just den chunken, inte ett 500 för hela requesten.
+ */
+public class CharacterBulkServiceTest {
+
+    private CharacterBulkService bulkService;
+    private EntityManager entityManager;
+
+    /**
+     * 🔧 En klass med tre skills i katalogen och mockad persistens.
+     */
+    @BeforeEach
+    void setUp() {
+        entityManager = mock(EntityManager.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        RPGClassRepository classRepository = mock(RPGClassRepository.class);
+        ItemDefinitionService itemDefinitionService = mock(ItemDefinitionService.class);
+
+        RPGClass warrior = new RPGClass();
+        warrior.setClassId(1L);
+        warrior.setName("Warrior");
+        warrior.setRole("Tank");
+        warrior.setArmorType("plate");
+        List<Skill> skills = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            Skill skill = new Skill();
+            skill.setId(id);
+            skill.setName("Skill " + id);
+            skill.setRpgClass(warrior);
+            skills.add(skill);
+        }
+        warrior.setSkillList(skills);
+
+        when(userRepository.findUserIdByUsername("player")).thenReturn(Optional.of(1L));
+        when(classRepository.findAllWithSkills()).thenReturn(List.of(warrior));
+        when(itemDefinitionService.resolve(any())).thenReturn(Map.of());
+
+        // persist() delar ut id:n som den riktiga id-generatorn
+        AtomicLong ids = new AtomicLong();
+        doAnswer(invocation -> {
+            if (invocation.getArgument(0) instanceof Character character) {
+                character.setId(ids.incrementAndGet());
+            }
+            return null;
+        }).when(entityManager).persist(any());
+
+        ClassCatalogService catalogService = new ClassCatalogService(
+                classRepository, mock(SkillRepository.class), mock(StartingItemRepository.class),
+                mock(PlatformTransactionManager.class)
+        );
+        catalogService.refresh();
+
+        bulkService = new CharacterBulkService(entityManager, mock(PlatformTransactionManager.class), userRepository,
+                catalogService, itemDefinitionService, new CharacterNameIndex(null));
+    }
+
+    /**
+     * 💥 Flush-fel i första chunken (rå Hibernate-exception) => dess element FAILED, nästa chunk skapas ändå.
+     */
+    @Test
+    void createCharactersForUsername_shouldReportFailedChunkAndContinue() {
+        doThrow(new ConstraintViolationException("Duplicate entry",
+                new SQLException("Duplicate entry 'x' for key 'uk_inventory_item_character_definition'"),
+                "uk_inventory_item_character_definition"))
+                .doNothing()
+                .when(entityManager).flush();
+
+        List<CharacterCreateDTO> dtos = new ArrayList<>();
+        for (int i = 0; i < 600; i++) { // två chunkar: 500 + 100
+            CharacterCreateDTO dto = new CharacterCreateDTO();
+            dto.setName("Hero " + i);
+            dto.setClassName("Warrior");
+            dto.setSkillIds(List.of(1L, 2L, 3L));
+            dtos.add(dto);
+        }
+
+        List<BulkCreateResultDTO> results = bulkService.createCharactersForUsername(dtos, "player");
+
+        assertEquals(600, results.size());
+        assertTrue(results.subList(0, 500).stream().allMatch(r -> BulkCreateResultDTO.FAILED.equals(r.getStatus())));
+        assertTrue(results.get(0).getError().contains("uk_inventory_item_character_definition"));
+        assertNull(results.get(0).getId());
+        assertTrue(results.subList(500, 600).stream().allMatch(r -> BulkCreateResultDTO.CREATED.equals(r.getStatus())));
+        assertNotNull(results.get(599).getId());
+    }
+}
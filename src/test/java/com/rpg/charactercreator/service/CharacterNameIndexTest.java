@@ -0,0 +1,172 @@
+package com.rpg.charactercreator.service;
+
+// 📦 DTOs och repositories
+import com.rpg.charactercreator.dto.NameSuggestionDTO;
+import com.rpg.charactercreator.repository.CharacterRepository;
+
+// 📦 JUnit & Mockito
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * ✅ Enhetstest för trigram-indexet bakom /characters/search.
+ */
+public class CharacterNameIndexTest {
+
+    private static final LocalDateTime LOADED_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private CharacterRepository characterRepository;
+    private MutableClock clock;
+    private CharacterNameIndex index;
+
+    /**
+     * 🔧 Laddar indexet med några namn från ett mockat repository.
+     */
+    @BeforeEach
+    void setUp() {
+        characterRepository = mock(CharacterRepository.class);
+        when(characterRepository.findNamesAfter(eq(0L), any(Limit.class))).thenReturn(List.of(
+                new NameSuggestionDTO(1L, "Aragorn"),
+                new NameSuggestionDTO(2L, "Gorn"),
+                new NameSuggestionDTO(3L, "Gandalf the Grey"),
+                new NameSuggestionDTO(4L, "Legolas")
+        ));
+
+        clock = new MutableClock(LOADED_AT);
+        index = new CharacterNameIndex(characterRepository, clock);
+        index.load();
+    }
+
+    /**
+     * 🔍 Delsträngar hittas oavsett skiftläge, och exakt träff rankas före längre namn.
+     */
+    @Test
+    void search_shouldFindSubstringsCaseInsensitive_andRankExactMatchFirst() {
+        assertEquals(List.of(2L, 1L), index.search("GORN", 10));
+        assertEquals(List.of(3L), index.search("the gr", 10));
+        assertEquals(List.of(), index.search("sauron", 10));
+    }
+
+    /**
+     * ✂️ Korta queries (utan trigram) fungerar och antalet träffar kapas av limit.
+     */
+    @Test
+    void search_shouldHandleShortQueries_andRespectLimit() {
+        assertEquals(List.of(3L, 4L), index.search("l", 2).stream().sorted().toList());
+        assertEquals(1, index.search("a", 1).size());
+    }
+
+    /**
+     * ♻️ Inkrementella uppdateringar: byte av namn och borttagning syns direkt utan transaktion.
+     */
+    @Test
+    void putAndRemove_shouldUpdateIndexIncrementally() {
+        index.put(2L, "Gimli");
+        assertEquals(List.of(1L), index.search("gorn", 10));
+        assertEquals(List.of(2L), index.search("gimli", 10));
+
+        index.remove(1L);
+        assertEquals(List.of(), index.search("gorn", 10));
+    }
+
+    /**
+     * 🔤 Prefix-förslag kommer i alfabetisk ordning, och följer med vid namnbyte.
+     */
+    @Test
+    void suggest_shouldReturnPrefixMatchesInOrder() {
+        index.put(5L, "Galadriel");
+
+        assertEquals(List.of("Galadriel", "Gandalf the Grey"),
+                index.suggest("ga", 10).stream().map(NameSuggestionDTO::getName).toList());
+        assertEquals(1, index.suggest("G", 1).size());
+
+        index.put(5L, "Elrond");
+        assertEquals(List.of(3L), index.suggest("ga", 10).stream().map(NameSuggestionDTO::getId).toList());
+    }
+
+    /**
+     * 🔁 Resync (multi-nod) för in namn som lagts till, bytts eller tagits bort på en annan nod.
+     */
+    @Test
+    void resync_shouldApplyChangesMadeOnAnotherNode() {
+        when(characterRepository.findNamesAfter(eq(0L), any(Limit.class))).thenReturn(List.of(
+                new NameSuggestionDTO(1L, "Aragorn"),
+                new NameSuggestionDTO(2L, "Gimli"),
+                new NameSuggestionDTO(3L, "Gandalf the Grey"),
+                new NameSuggestionDTO(5L, "Galadriel")
+        ));
+
+        index.resync();
+
+        assertEquals(List.of(1L), index.search("gorn", 10));
+        assertEquals(List.of(2L), index.search("gimli", 10));
+        assertEquals(List.of(), index.search("legolas", 10));
+        assertEquals(List.of("Galadriel", "Gandalf the Grey"),
+                index.suggest("ga", 10).stream().map(NameSuggestionDTO::getName).toList());
+    }
+
+    /**
+     * ⏩ Inkrementell resync läser bara rader efter högsta kända id eller ändrade sedan förra läsningen
+     * (med marginal bakåt), och nästa gång börjar den där den här slutade. Borttagna ligger kvar till full resync.
+     */
+    @Test
+    void resyncChanges_shouldReadOnlyTheDeltaSinceLastSync() {
+        LocalDateTime since = LOADED_AT.minus(CharacterNameIndex.CHANGE_OVERLAP);
+        when(characterRepository.findNamesChangedSince(4L, since)).thenReturn(List.of(
+                new NameSuggestionDTO(2L, "Gimli"),
+                new NameSuggestionDTO(7L, "Galadriel")
+        ));
+        clock.set(LOADED_AT.plusSeconds(30));
+
+        index.resyncChanges();
+
+        assertEquals(List.of(2L), index.search("gimli", 10));
+        assertEquals(List.of(7L), index.search("galadriel", 10));
+        assertEquals(List.of(4L), index.search("legolas", 10)); // borttagen först vid resync()
+        verify(characterRepository, times(1)).findNamesAfter(any(), any(Limit.class)); // bara load()
+
+        index.resyncChanges();
+        verify(characterRepository).findNamesChangedSince(7L, LOADED_AT.plusSeconds(30).minus(CharacterNameIndex.CHANGE_OVERLAP));
+    }
+
+    /** Klocka som testet kan flytta. */
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(LocalDateTime now) {
+            set(now);
+        }
+
+        void set(LocalDateTime now) {
+            this.now = now.atZone(ZoneOffset.UTC).toInstant();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.rpg.charactercreator.service;
+
+// 📦 JUnit
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ✅ Enhetstest för CharacterOwnershipCache (med en styrd klocka).
+ */
+public class CharacterOwnershipCacheTest {
+
+    private AtomicLong now;
+    private CharacterOwnershipCache cache;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong();
+        cache = new CharacterOwnershipCache(now::get);
+    }
+
+    /**
+     * ⏱️ En träff gäller bara för rätt användare och bara under TTL:en.
+     */
+    @Test
+    void isOwner_shouldHitForSamePrincipalUntilExpired() {
+        cache.put("alice", 7L);
+
+        assertTrue(cache.isOwner("alice", 7L));
+        assertFalse(cache.isOwner("bob", 7L));
+        assertFalse(cache.isOwner("alice", 8L));
+
+        now.addAndGet(CharacterOwnershipCache.TTL.toNanos());
+        assertFalse(cache.isOwner("alice", 7L));
+    }
+
+    /**
+     * ❌ En raderad karaktär glöms för alla användare.
+     */
+    @Test
+    void evict_shouldForgetCharacter() {
+        cache.put("alice", 7L);
+        cache.put("alice", 8L);
+
+        cache.evict(7L);
+
+        assertFalse(cache.isOwner("alice", 7L));
+        assertTrue(cache.isOwner("alice", 8L));
+    }
+
+    /**
+     * 📏 Varje användare har ett tak; utgångna id:n rensas först när taket nås.
+     */
+    @Test
+    void put_shouldStayWithinPerPrincipalLimit() {
+        for (long id = 0; id < CharacterOwnershipCache.MAX_IDS_PER_PRINCIPAL; id++) {
+            cache.put("alice", id);
+        }
+        now.addAndGet(CharacterOwnershipCache.TTL.toNanos());
+
+        cache.put("alice", -1L);
+
+        assertTrue(cache.isOwner("alice", -1L));
+        assertFalse(cache.isOwner("alice", 0L));
+    }
+}
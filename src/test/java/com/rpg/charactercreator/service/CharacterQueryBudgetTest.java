@@ -0,0 +1,675 @@
+package com.rpg.charactercreator.service;
+
+// 📦 DTOs och modeller
+import com.rpg.charactercreator.dto.BulkCreateResultDTO;
+import com.rpg.charactercreator.dto.BulkUpdateResultDTO;
+import com.rpg.charactercreator.dto.CharacterCreateDTO;
+import com.rpg.charactercreator.dto.CharacterCursorPageDTO;
+import com.rpg.charactercreator.dto.CharacterWithDetailsDTO;
+import com.rpg.charactercreator.dto.InventoryItemDTO;
+import com.rpg.charactercreator.dto.UserDTO;
+import com.rpg.charactercreator.exception.CharacterNotFoundException;
+import com.rpg.charactercreator.exception.InsufficientQuantityException;
+import com.rpg.charactercreator.exception.InvalidQuantityException;
+import com.rpg.charactercreator.exception.InventoryItemNotFoundException;
+import com.rpg.charactercreator.model.Character;
+import com.rpg.charactercreator.model.InventoryItem;
+import com.rpg.charactercreator.model.ItemDefinition;
+import com.rpg.charactercreator.model.RPGClass;
+import com.rpg.charactercreator.model.Skill;
+import com.rpg.charactercreator.model.User;
+import com.rpg.charactercreator.repository.UserRepository;
+
+// 📦 JUnit, Spring & Hibernate
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionEventListener;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ✅ Query-budget för CharacterService mot en in-memory databas.
+ * Räknar antalet SQL-statements via Hibernate-statistiken så att N+1 inte smyger sig tillbaka.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@Import({CharacterService.class, CharacterExportService.class, CharacterNameIndex.class, CharacterBulkService.class,
+        ClassCatalogService.class, RPGClassService.class, ItemDefinitionService.class,
+        CharacterOwnershipCache.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class CharacterQueryBudgetTest {
+
+    /** Max antal statements för en sida: page + count + roller + skills + inventory + vapen. */
+    private static final int PAGE_QUERY_BUDGET = 6;
+
+    /** Max antal statements för att skapa en karaktär: ägar-id, föremålsdefinitioner, id-block och inserts (katalogen ligger i minnet). */
+    private static final int CREATE_QUERY_BUDGET = 6;
+
+    /** Max antal statements för 300 bulk-karaktärer (~1500 rader): id-block + batchade inserts. */
+    private static final int BULK_STATEMENT_BUDGET = 20;
+
+    /** Batch-inventory: existens, definitioner, staplar, en atomisk UPDATE, id-block och två batch-INSERT:ar. */
+    private static final int INVENTORY_STATEMENT_BUDGET = 10;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CharacterService characterService;
+
+    @Autowired
+    private CharacterExportService characterExportService;
+
+    @Autowired
+    private CharacterNameIndex characterNameIndex;
+
+    @Autowired
+    private CharacterBulkService characterBulkService;
+
+    @Autowired
+    private ClassCatalogService catalogService;
+
+    @Autowired
+    private RPGClassService classService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Statistics statistics;
+
+    /**
+     * 🔧 Seedar två klasser, tre användare och 60 karaktärer med skills + inventory.
+     */
+    @BeforeEach
+    void setUp() {
+        entityManager.getEntityManagerFactory().getCache().evictAll(); // second-level cachen delas mellan test-kontexter
+        List<RPGClass> classes = new ArrayList<>();
+        for (String name : List.of("Warrior", "Mage")) {
+            RPGClass rpgClass = new RPGClass();
+            rpgClass.setName(name);
+            rpgClass.setRole("Tank");
+            rpgClass.setArmorType("plate");
+            rpgClass.setWeapons(new ArrayList<>(List.of(name + " Sword", name + " Shield")));
+            entityManager.persist(rpgClass);
+
+            List<Skill> skills = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                Skill skill = new Skill();
+                skill.setName(name + " skill " + i);
+                skill.setRpgClass(rpgClass);
+                entityManager.persist(skill);
+                skills.add(skill);
+            }
+            rpgClass.setSkillList(skills);
+            classes.add(rpgClass);
+        }
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            User user = new User();
+            user.setUsername("player" + i);
+            user.setEmail("player" + i + "@example.com");
+            user.setPassword("secret");
+            entityManager.persist(user);
+            users.add(user);
+        }
+
+        List<ItemDefinition> loot = new ArrayList<>();
+        for (int j = 0; j < 2; j++) {
+            ItemDefinition definition = new ItemDefinition("Item " + j, "Loot");
+            entityManager.persist(definition);
+            loot.add(definition);
+        }
+
+        for (int i = 0; i < 60; i++) {
+            RPGClass rpgClass = classes.get(i % classes.size());
+            Character character = new Character();
+            character.setName("Hero " + i);
+            character.setLevel(1);
+            character.setRpgClass(rpgClass);
+            character.setUser(users.get(i % users.size()));
+            character.setSkills(new ArrayList<>(rpgClass.getSkillList().subList(0, 2)));
+            character.setInventoryItems(new ArrayList<>());
+            entityManager.persist(character);
+
+            for (int j = 0; j < 2; j++) {
+                InventoryItem item = new InventoryItem(loot.get(j), 1, character);
+                entityManager.persist(item);
+                character.getInventoryItems().add(item);
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        catalogService.refresh();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * 📄 En sida med DTO:er ska kosta lika många statements oavsett sidstorlek.
+     */
+    @Test
+    void getAllCharactersWithDetails_shouldUseConstantNumberOfStatements_regardlessOfPageSize() {
+        long smallPage = countStatementsForPage(PageRequest.of(1, 5, Sort.by("id")));
+        long largePage = countStatementsForPage(PageRequest.of(0, 50, Sort.by("id")));
+
+        assertTrue(largePage <= PAGE_QUERY_BUDGET, "Page of 50 used " + largePage + " statements");
+        assertEquals(smallPage, largePage);
+    }
+
+    /**
+     * 🔍 DTO:n ska vara fullt ifylld (klass, vapen, ägare, skills, inventory).
+     */
+    @Test
+    void getAllCharactersWithDetails_shouldMapAllRelations() {
+        Page<CharacterWithDetailsDTO> page = characterService.getAllCharactersWithDetails(PageRequest.of(0, 10, Sort.by("id")));
+
+        assertEquals(60, page.getTotalElements());
+        CharacterWithDetailsDTO first = page.getContent().get(0);
+        assertEquals("Hero 0", first.getName());
+        assertEquals("Warrior", first.getClassName());
+        assertEquals(List.of("Warrior Sword", "Warrior Shield"), first.getWeapons());
+        assertEquals("player0", first.getUsername());
+        assertEquals(2, first.getSkills().size());
+        assertEquals(2, first.getInventory().size());
+    }
+
+    /**
+     * 🎭 Keyset-sidor för en ägare ska bara innehålla ägarens karaktärer, i id-ordning utan överlapp.
+     */
+    @Test
+    void getCharactersWithDetailsByUserId_shouldPageThroughOwnersRosterOnly() {
+        List<CharacterWithDetailsDTO> firstPage = characterService.getCharactersWithDetailsByUserId(usersId(0), null, 15);
+        Long lastId = firstPage.get(firstPage.size() - 1).getId();
+        List<CharacterWithDetailsDTO> secondPage = characterService.getCharactersWithDetailsByUserId(usersId(0), lastId, 15);
+
+        assertEquals(15, firstPage.size());
+        assertEquals(5, secondPage.size());
+        assertTrue(secondPage.get(0).getId() > lastId);
+        assertTrue(secondPage.stream().allMatch(dto -> "player0".equals(dto.getUsername())));
+    }
+
+    /**
+     * 📜 Cursor-paginering ska gå igenom alla karaktärer exakt en gång, i stabil ordning.
+     */
+    @Test
+    void scrollCharactersWithDetails_shouldVisitEveryCharacterOnce() {
+        Set<Long> seen = new HashSet<>();
+        String previousName = null;
+        String cursor = null;
+        do {
+            CharacterCursorPageDTO page = characterService.scrollCharactersWithDetails(cursor, "name", "desc", 7);
+            for (CharacterWithDetailsDTO dto : page.getContent()) {
+                assertTrue(seen.add(dto.getId()), "Duplicate id " + dto.getId());
+                assertTrue(previousName == null || previousName.compareTo(dto.getName()) >= 0);
+                previousName = dto.getName();
+            }
+            cursor = page.getNext();
+        } while (cursor != null);
+
+        assertEquals(60, seen.size());
+    }
+
+    /**
+     * 📤 NDJSON-exporten ska ge en rad per karaktär, även när den läses i flera chunks.
+     */
+    @Test
+    void exportAsNdjson_shouldWriteOneLinePerCharacter() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        characterExportService.exportAsNdjson(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(60, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"name\":\"Hero 0\""));
+    }
+
+    /**
+     * 🔎 Sökningen ska svaras från trigram-indexet, rankat och kapat, och bara hämta träffarna.
+     */
+    @Test
+    void searchByNameWithDetails_shouldRankIndexHitsAndHydrateOnlyMatches() {
+        characterNameIndex.load();
+        entityManager.clear();
+        statistics.clear();
+
+        List<CharacterWithDetailsDTO> hits = characterService.searchByNameWithDetails("hero 1", 5);
+
+        assertEquals(5, hits.size());
+        assertEquals("Hero 1", hits.get(0).getName());
+        assertTrue(hits.stream().allMatch(dto -> dto.getName().startsWith("Hero 1")));
+        assertTrue(statistics.getPrepareStatementCount() <= PAGE_QUERY_BUDGET);
+    }
+
+    /**
+     * 📦 Bulk-skapande: giltiga element skrivs i batchar, ogiltiga får ett eget REJECTED-resultat.
+     */
+    @Test
+    void createCharactersForUsername_shouldInsertValidEntriesAndReportRejected() {
+        List<Long> warriorSkills = entityManager.createQuery(
+                        "SELECT s.id FROM Skill s WHERE s.rpgClass.name = 'Warrior' ORDER BY s.id", Long.class)
+                .getResultList();
+        List<CharacterCreateDTO> dtos = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            dtos.add(createDTO("Imported " + i, "Warrior", warriorSkills));
+        }
+        dtos.add(createDTO("No class", "Bard", warriorSkills));
+        dtos.add(createDTO("Wrong skills", "Mage", warriorSkills));
+
+        statistics.clear();
+        List<BulkCreateResultDTO> results = characterBulkService.createCharactersForUsername(dtos, "player1");
+
+        long statements = statistics.getPrepareStatementCount();
+
+        assertTrue(statements <= BULK_STATEMENT_BUDGET, "Bulk insert of 300 characters used " + statements + " statements");
+        assertEquals(302, results.size());
+        assertEquals(300, results.stream().filter(r -> BulkCreateResultDTO.CREATED.equals(r.getStatus())).count());
+        assertEquals(BulkCreateResultDTO.REJECTED, results.get(300).getStatus());
+        assertEquals(BulkCreateResultDTO.REJECTED, results.get(301).getStatus());
+        assertEquals(360L, entityManager.createQuery("SELECT COUNT(c) FROM Character c", Long.class).getSingleResult());
+
+        entityManager.clear();
+        CharacterWithDetailsDTO imported = characterService.toDTO(entityManager
+                .createQuery("SELECT c FROM Character c WHERE c.name = 'Imported 42'", Character.class)
+                .getSingleResult());
+        assertEquals("player1", imported.getUsername());
+        assertEquals(3, imported.getSkills().size());
+        assertEquals(List.of("Traveler's Armor"), imported.getInventory());
+    }
+
+    /**
+     * 📉 Före/efter för id-strategin: samma 300 bulk-karaktärer rad för rad (som med IDENTITY, där varje INSERT
+     * måste köras direkt för att ge sitt id) jämfört med pooled id:n + JDBC-batchar. Räknar JDBC-anrop till
+     * databasen (execute + executeBatch), dvs. rundresor.
+     */
+    @Test
+    void createCharactersForUsername_shouldNeedFarFewerRoundTripsThanRowByRowInserts() {
+        List<Long> warriorSkills = entityManager.createQuery(
+                        "SELECT s.id FROM Skill s WHERE s.rpgClass.name = 'Warrior' ORDER BY s.id", Long.class)
+                .getResultList();
+        Session session = entityManager.unwrap(Session.class);
+        RoundTripCounter counter = new RoundTripCounter();
+        session.addEventListeners(counter);
+
+        session.setJdbcBatchSize(1); // ingen batchning: en INSERT per rad
+        long rowByRow = counter.count(() -> createBulk("Row", warriorSkills));
+        session.setJdbcBatchSize(null); // tillbaka till hibernate.jdbc.batch_size
+        long batched = counter.count(() -> createBulk("Batched", warriorSkills));
+
+        // 300 × (karaktär + 3 skills + startföremål) = 1500 rader
+        assertTrue(rowByRow >= 1500, "Row-by-row insert used " + rowByRow + " round trips");
+        assertTrue(batched * 20 <= rowByRow, "Batched: " + batched + " round trips, row by row: " + rowByRow);
+    }
+
+    /**
+     * ✍️ Att skapa en karaktär (inkl. DTO-svaret) ska hålla sig inom en fast query-budget.
+     */
+    @Test
+    void createCharacterWithDetailsForUsername_shouldStayWithinQueryBudget() {
+        List<Long> mageSkills = entityManager.createQuery(
+                        "SELECT s.id FROM Skill s WHERE s.rpgClass.name = 'Mage' ORDER BY s.id", Long.class)
+                .getResultList();
+        CharacterCreateDTO dto = createDTO("Fresh Mage", "Mage", mageSkills);
+        dto.setStartingItems(List.of(new InventoryItemDTO("Potion", "Heals a little")));
+
+        statistics.clear();
+        CharacterWithDetailsDTO created = characterService.createCharacterWithDetailsForUsername(dto, "player2");
+        entityManager.flush();
+        long statements = statistics.getPrepareStatementCount();
+
+        assertTrue(statements <= CREATE_QUERY_BUDGET, "Creating a character used " + statements + " statements");
+        assertEquals("player2", created.getUsername());
+        assertEquals(List.of("Mage Sword", "Mage Shield"), created.getWeapons());
+        assertEquals(3, created.getSkills().size());
+        assertEquals(List.of("Potion", "Traveler's Armor"), created.getInventory());
+
+        entityManager.clear();
+        Character stored = entityManager.find(Character.class, created.getId());
+        assertEquals("player2", stored.getUser().getUsername());
+        assertEquals(2, stored.getInventoryItems().size());
+    }
+
+    /**
+     * 📚 Katalog-läsningar (klasser, klass via namn, startföremål) ska inte röra databasen alls.
+     */
+    @Test
+    void catalogReads_shouldBeAnsweredFromSnapshotWithoutStatements() {
+        entityManager.clear();
+        statistics.clear();
+
+        assertEquals(2, classService.findAll().size());
+        assertEquals(3, classService.getClassWithSkills("mage").orElseThrow().getSkills().size());
+        assertEquals(List.of("Warrior Sword", "Warrior Shield"),
+                classService.findByName("Warrior").map(classService::toFullDTO).orElseThrow().getWeapons());
+        assertTrue(classService.getStartingItemsForClass("Bard").isEmpty());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * 👤 Användarlistan ska vara en enda projektion – inga lösenord, inga roller.
+     */
+    @Test
+    void findAllAsDTO_shouldUseSingleStatement() {
+        entityManager.clear();
+        statistics.clear();
+
+        List<UserDTO> users = userRepository.findAllAsDTO();
+
+        assertEquals(List.of("player0", "player1", "player2"), users.stream().map(UserDTO::getUsername).toList());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    /**
+     * ✏️ En uppdaterad klass ska gå att serialisera när persistence contexten är stängd (ingen open-in-view).
+     */
+    @Test
+    void updateClass_shouldReturnInitializedCollections() {
+        Long mageId = classService.findByName("Mage").orElseThrow().getClassId();
+        RPGClass changes = new RPGClass();
+        changes.setDescription("Arcane");
+        changes.setStrength(9);
+
+        RPGClass updated = classService.updateClass(mageId, changes).orElseThrow();
+        entityManager.flush();
+        entityManager.clear(); // som efter transaktionens slut: inget kan lazy-laddas längre
+
+        assertEquals("Arcane", updated.getDescription());
+        assertEquals(5, updated.getStrength());
+        assertEquals(3, updated.getSkillList().size());
+        assertEquals(List.of("Mage Sword", "Mage Shield"), updated.getWeapons());
+        assertTrue(classService.updateClass(-1L, changes).isEmpty());
+    }
+
+    /**
+     * ✏️ Batch-uppdatering av klasser: en laddning, en batchad UPDATE och ett resultat per element.
+     */
+    @Test
+    void updateClasses_shouldLoadOnceFlushOnceAndReportMissingIds() {
+        List<RPGClass> changes = new ArrayList<>();
+        for (RPGClass existing : classService.findAll()) {
+            RPGClass change = new RPGClass();
+            change.setClassId(existing.getClassId());
+            change.setDescription("Updated " + existing.getName());
+            change.setWisdom(7);
+            changes.add(change);
+        }
+        RPGClass missing = new RPGClass();
+        missing.setClassId(-1L);
+        changes.add(missing);
+        changes.add(new RPGClass()); // inget id alls
+
+        entityManager.clear();
+        statistics.clear();
+        List<BulkUpdateResultDTO> results = classService.updateClasses(changes);
+        entityManager.flush();
+        long statements = statistics.getPrepareStatementCount();
+
+        assertTrue(statements <= 2, "Updating two classes used " + statements + " statements");
+        assertEquals(List.of(BulkUpdateResultDTO.UPDATED, BulkUpdateResultDTO.UPDATED,
+                        BulkUpdateResultDTO.NOT_FOUND, BulkUpdateResultDTO.NOT_FOUND),
+                results.stream().map(BulkUpdateResultDTO::getStatus).toList());
+        assertEquals(-1L, results.get(2).getId());
+        assertEquals(3, results.get(3).getIndex());
+
+        entityManager.clear();
+        RPGClass mage = entityManager.find(RPGClass.class, classService.findByName("Mage").orElseThrow().getClassId());
+        assertEquals("Updated Mage", mage.getDescription());
+        assertEquals(5, mage.getWisdom());
+    }
+
+    /**
+     * 🎒 Batch-inventory: items slås ihop till staplar, befintlig stapel ökas och nya skrivs i en batch
+     * – utan att karaktären laddas.
+     */
+    @Test
+    void addInventoryItems_shouldStackItemsAndInsertNewStacksInOneBatch() {
+        Long characterId = entityManager.createQuery("SELECT c.id FROM Character c WHERE c.name = 'Hero 7'", Long.class)
+                .getSingleResult();
+        List<InventoryItemDTO> loot = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            loot.add(new InventoryItemDTO("Item 0", "Loot"));   // befintlig stapel
+            loot.add(new InventoryItemDTO("Gem " + i, null)); // nya definitioner och staplar
+        }
+
+        entityManager.clear();
+        statistics.clear();
+        characterService.addInventoryItems(characterId, loot);
+        entityManager.flush();
+        long statements = statistics.getPrepareStatementCount();
+
+        assertTrue(statements <= INVENTORY_STATEMENT_BUDGET, "Adding 40 items used " + statements + " statements");
+        assertEquals(0, statistics.getEntityStatistics(Character.class.getName()).getLoadCount());
+
+        entityManager.clear();
+        List<InventoryItemDTO> inventory = characterService.getInventoryForCharacter(characterId, null, CharacterService.MAX_INVENTORY_PAGE_SIZE);
+        assertEquals(22, inventory.size());
+        assertEquals(21, inventory.stream().filter(item -> item.getName().equals("Item 0")).findFirst().orElseThrow().getQuantity());
+        List<String> summary = characterService.toDTO(entityManager.find(Character.class, characterId)).getInventory();
+        assertEquals(22, summary.size());
+        assertTrue(summary.contains("Item 0 x21"));
+        assertTrue(summary.contains("Gem 0"));
+        assertThrows(CharacterNotFoundException.class, () -> characterService.addInventoryItems(-1L, loot));
+    }
+
+    /**
+     * 🔠 Namn som bara skiljer sig i skiftläge är samma definition och blir en stapel
+     * – inte två nya rader mot den unika nyckeln (character_id, definition_id).
+     */
+    @Test
+    void addInventoryItems_shouldMergeCaseVariantsIntoOneStack() {
+        Long characterId = entityManager.createQuery("SELECT c.id FROM Character c WHERE c.name = 'Hero 10'", Long.class)
+                .getSingleResult();
+
+        characterService.addInventoryItems(characterId, List.of(
+                new InventoryItemDTO("Sword", "Sharp"), new InventoryItemDTO("sword", "sharp"),
+                new InventoryItemDTO("Item 1", "Loot"), new InventoryItemDTO("ITEM 1", "LOOT")));
+        entityManager.flush();
+
+        assertEquals(2, findStack(characterId, "Sword").getQuantity());
+        assertEquals(3, findStack(characterId, "Item 1").getQuantity());
+
+        List<Long> mageSkills = entityManager.createQuery(
+                        "SELECT s.id FROM Skill s WHERE s.rpgClass.name = 'Mage' ORDER BY s.id", Long.class)
+                .getResultList();
+        CharacterCreateDTO dto = createDTO("Potion Mage", "Mage", mageSkills);
+        dto.setStartingItems(List.of(new InventoryItemDTO("Elixir", "Heals"), new InventoryItemDTO("elixir", "heals")));
+        CharacterWithDetailsDTO created = characterService.createCharacterWithDetailsForUsername(dto, "player2");
+        entityManager.flush();
+
+        assertEquals(List.of("Elixir x2", "Traveler's Armor"), created.getInventory());
+    }
+
+    /**
+     * 🔢 En stapel kan inte växa över MAX_QUANTITY: tillägget avvisas (400-undantaget) och stapeln är orörd,
+     * och startföremål som tillsammans blir för många avvisas innan något skrivs.
+     */
+    @Test
+    void addInventoryItems_shouldRejectStacksAboveMaxQuantity() {
+        Long characterId = entityManager.createQuery("SELECT c.id FROM Character c WHERE c.name = 'Hero 9'", Long.class)
+                .getSingleResult();
+        InventoryItemDTO arrows = new InventoryItemDTO("Arrow", "Pointy");
+        arrows.setQuantity(InventoryItem.MAX_QUANTITY - 1);
+        characterService.addInventoryItems(characterId, List.of(arrows));
+        entityManager.flush();
+
+        InventoryItemDTO two = new InventoryItemDTO("Arrow", "Pointy");
+        two.setQuantity(2);
+        assertThrows(InvalidQuantityException.class, () -> characterService.addInventoryItems(characterId, List.of(two)));
+        entityManager.clear();
+        assertEquals(InventoryItem.MAX_QUANTITY - 1, findStack(characterId, "Arrow").getQuantity());
+
+        characterService.addInventoryItems(characterId, List.of(new InventoryItemDTO("Arrow", "Pointy")));
+        entityManager.clear();
+        assertEquals(InventoryItem.MAX_QUANTITY, findStack(characterId, "Arrow").getQuantity());
+
+        List<Long> mageSkills = entityManager.createQuery(
+                        "SELECT s.id FROM Skill s WHERE s.rpgClass.name = 'Mage' ORDER BY s.id", Long.class)
+                .getResultList();
+        CharacterCreateDTO dto = createDTO("Hoarder", "Mage", mageSkills);
+        InventoryItemDTO elixirs = new InventoryItemDTO("Elixir", "Heals");
+        elixirs.setQuantity(InventoryItem.MAX_QUANTITY);
+        dto.setStartingItems(List.of(elixirs, new InventoryItemDTO("elixir", "heals")));
+        assertThrows(InvalidQuantityException.class,
+                () -> characterService.createCharacterWithDetailsForUsername(dto, "player2"));
+    }
+
+    /**
+     * ➖ Uttag minskar stapeln; för stort uttag ger 409-undantaget utan att ta något, det sista tar bort
+     * stapeln, och en okänd stapel ger 404-undantaget.
+     */
+    @Test
+    void removeInventoryItem_shouldDecrementAndFinallyDeleteStack() {
+        Long characterId = entityManager.createQuery("SELECT c.id FROM Character c WHERE c.name = 'Hero 8'", Long.class)
+                .getSingleResult();
+        InventoryItemDTO potions = new InventoryItemDTO("Potion", "Heals a little");
+        potions.setQuantity(3);
+        characterService.addInventoryItems(characterId, List.of(potions));
+        entityManager.flush();
+        Long stackId = findStack(characterId, "Potion").getId();
+
+        characterService.removeInventoryItem(characterId, stackId, 2);
+        assertEquals(1, findStack(characterId, "Potion").getQuantity());
+
+        assertThrows(InsufficientQuantityException.class, () -> characterService.removeInventoryItem(characterId, stackId, 5));
+        assertEquals(1, findStack(characterId, "Potion").getQuantity());
+
+        characterService.removeInventoryItem(characterId, stackId, 1);
+        assertTrue(characterService.getInventoryForCharacter(characterId, null, CharacterService.MAX_INVENTORY_PAGE_SIZE).stream().noneMatch(i -> i.getName().equals("Potion")));
+        assertThrows(InventoryItemNotFoundException.class, () -> characterService.removeInventoryItem(characterId, stackId, 1));
+    }
+
+    /**
+     * 📄 Inventory-sidor är en enda projektions-query: inga entiteter, och keyset-markören går igenom allt en gång.
+     */
+    @Test
+    void getInventoryForCharacter_shouldPageWithSingleProjectionQuery() {
+        Long characterId = entityManager.createQuery("SELECT c.id FROM Character c WHERE c.name = 'Hero 9'", Long.class)
+                .getSingleResult();
+        List<InventoryItemDTO> loot = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            loot.add(new InventoryItemDTO("Coin " + i, null));
+        }
+        characterService.addInventoryItems(characterId, loot);
+        entityManager.flush();
+
+        entityManager.clear();
+        statistics.clear();
+        List<InventoryItemDTO> firstPage = characterService.getInventoryForCharacter(characterId, null, 10);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(10, firstPage.size());
+
+        List<String> names = new ArrayList<>(firstPage.stream().map(InventoryItemDTO::getName).toList());
+        Long after = firstPage.get(firstPage.size() - 1).getId();
+        List<InventoryItemDTO> page;
+        while (!(page = characterService.getInventoryForCharacter(characterId, after, 10)).isEmpty()) {
+            page.forEach(item -> names.add(item.getName()));
+            after = page.get(page.size() - 1).getId();
+        }
+        assertEquals(27, names.size());
+        assertEquals(27, new HashSet<>(names).size());
+    }
+
+    /**
+     * 🔐 Ägarkollen: en existens-query första gången, sedan ingen (cache); fel ägare nekas, okänd karaktär ger 404.
+     */
+    @Test
+    void isOwner_shouldUseOneExistenceQueryAndThenTheCache() {
+        Long characterId = entityManager.createQuery("SELECT c.id FROM Character c WHERE c.name = 'Hero 4'", Long.class)
+                .getSingleResult(); // 4 % 3 => player1
+        entityManager.clear();
+        statistics.clear();
+
+        assertTrue(characterService.isOwner(characterId, "player1"));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+
+        assertTrue(characterService.isOwner(characterId, "player1"));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        assertFalse(characterService.isOwner(characterId, "player2"));
+        assertThrows(CharacterNotFoundException.class, () -> characterService.isOwner(-1L, "player1"));
+    }
+
+    private static CharacterCreateDTO createDTO(String name, String className, List<Long> skillIds) {
+        CharacterCreateDTO dto = new CharacterCreateDTO();
+        dto.setName(name);
+        dto.setClassName(className);
+        dto.setSkillIds(skillIds);
+        return dto;
+    }
+
+    private InventoryItemDTO findStack(Long characterId, String name) {
+        entityManager.clear();
+        return characterService.getInventoryForCharacter(characterId, null, CharacterService.MAX_INVENTORY_PAGE_SIZE).stream()
+                .filter(item -> item.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private Long usersId(int index) {
+        return entityManager.createQuery("SELECT u.userId FROM User u WHERE u.username = :name", Long.class)
+                .setParameter("name", "player" + index)
+                .getSingleResult();
+    }
+
+    private void createBulk(String prefix, List<Long> skillIds) {
+        List<CharacterCreateDTO> dtos = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            dtos.add(createDTO(prefix + " " + i, "Warrior", skillIds));
+        }
+        characterBulkService.createCharactersForUsername(dtos, "player0");
+    }
+
+    private long countStatementsForPage(PageRequest pageRequest) {
+        entityManager.clear();
+        statistics.clear();
+        Page<CharacterWithDetailsDTO> page = characterService.getAllCharactersWithDetails(pageRequest);
+        assertEquals(pageRequest.getPageSize(), page.getNumberOfElements());
+        return statistics.getPrepareStatementCount();
+    }
+
+    /** Räknar sessionens JDBC-anrop till databasen: enskilda statements och batchar. */
+    private static final class RoundTripCounter implements SessionEventListener {
+        private long roundTrips;
+
+        long count(Runnable work) {
+            long before = roundTrips;
+            work.run();
+            return roundTrips - before;
+        }
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            roundTrips++;
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            roundTrips++;
+        }
+    }
+}
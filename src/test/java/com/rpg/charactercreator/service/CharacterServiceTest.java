@@ -3,23 +3,36 @@ package com.rpg.charactercreator.service;
 // 📦 DTOs och modeller
 import com.rpg.charactercreator.dto.CharacterCreateDTO;
 import com.rpg.charactercreator.dto.InventoryItemDTO;
+import com.rpg.charactercreator.exception.ConcurrentUpdateException;
+import com.rpg.charactercreator.model.InventoryItem;
+import com.rpg.charactercreator.model.ItemDefinition;
 import com.rpg.charactercreator.model.RPGClass;
 import com.rpg.charactercreator.model.User;
 
 // 📦 Repositories
+import com.rpg.charactercreator.repository.CharacterRepository;
 import com.rpg.charactercreator.repository.RPGClassRepository;
 import com.rpg.charactercreator.repository.SkillRepository;
 import com.rpg.charactercreator.repository.UserRepository;
 import com.rpg.charactercreator.repository.InventoryItemRepository;
+import com.rpg.charactercreator.repository.StartingItemRepository;
 
 // 📦 JUnit & Mockito
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.hibernate.exception.ConstraintViolationException;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 /**
@@ -29,23 +42,34 @@ import static org.mockito.Mockito.*;
 public class CharacterServiceTest {
 
     private CharacterService characterService;
+    private CharacterRepository characterRepository;
     private UserRepository userRepository;
     private RPGClassRepository classRepository;
     private SkillRepository skillRepository;
     private InventoryItemRepository inventoryItemRepository;
+    private ClassCatalogService catalogService;
+    private ItemDefinitionService itemDefinitionService;
 
     /**
      * 🔧 Skapar mocks innan varje test.
      */
     @BeforeEach
     void setUp() {
+        characterRepository = mock(CharacterRepository.class);
         userRepository = mock(UserRepository.class);
         classRepository = mock(RPGClassRepository.class);
         skillRepository = mock(SkillRepository.class);
         inventoryItemRepository = mock(InventoryItemRepository.class);
+        itemDefinitionService = mock(ItemDefinitionService.class);
+        catalogService = new ClassCatalogService(
+                classRepository, skillRepository, mock(StartingItemRepository.class),
+                mock(PlatformTransactionManager.class)
+        );
 
         characterService = new CharacterService(
-                null, userRepository, classRepository, skillRepository, inventoryItemRepository
+                characterRepository, userRepository, classRepository, skillRepository, inventoryItemRepository,
+                itemDefinitionService, new CharacterNameIndex(null), catalogService, new CharacterOwnershipCache(),
+                mock(PlatformTransactionManager.class)
         );
     }
 
@@ -55,14 +79,13 @@ public class CharacterServiceTest {
     @Test
     void createCharacter_shouldThrowIllegalArgumentException_forInvalidSkills() {
         // Arrange
-        User mockUser = new User();
-        mockUser.setUserId(1L);
-
         RPGClass mockClass = new RPGClass();
         mockClass.setName("warrior");
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(mockUser));
-        when(classRepository.findByName("warrior")).thenReturn(Optional.of(mockClass));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(new User());
+        when(classRepository.findAllWithSkills()).thenReturn(List.of(mockClass));
+        catalogService.refresh();
 
         CharacterCreateDTO dto = new CharacterCreateDTO();
         dto.setName("SkillFail");
@@ -78,4 +101,83 @@ public class CharacterServiceTest {
 
         assertTrue(ex.getMessage().contains("not allowed for class"));
     }
-}
\ No newline at end of file
+
+    /**
+     * 🔁 En samtidig request hann skapa stapeln (unik nyckel) => hela tillägget görs om och blir en ökning.
+     */
+    @Test
+    void addInventoryItems_shouldRetryAsIncrementWhenConcurrentAddCreatedTheStack() {
+        stackOf("Potion", 5L, 2);
+        when(inventoryItemRepository.findStackedDefinitionIds(eq(1L), anyCollection()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(5L));
+        when(inventoryItemRepository.saveAll(anyCollection()))
+                .thenThrow(uniqueKeyConflict())
+                .thenReturn(List.of());
+        when(inventoryItemRepository.addQuantity(1L, 5L, 2, InventoryItem.MAX_QUANTITY)).thenReturn(1);
+
+        characterService.addInventoryItems(1L, List.of(new InventoryItemDTO("Potion", "Heals")));
+
+        verify(inventoryItemRepository, times(1)).addQuantity(1L, 5L, 2, InventoryItem.MAX_QUANTITY);
+        verify(inventoryItemRepository, times(2)).saveAll(anyCollection());
+    }
+
+    /**
+     * 🔁 Krocken kvarstår efter alla försök => 409-undantag utan SQL; andra integritetsfel görs inte om.
+     */
+    @Test
+    void addInventoryItems_shouldGiveUpWithConflictButNotRetryOtherIntegrityErrors() {
+        stackOf("Potion", 5L, 2);
+        when(inventoryItemRepository.saveAll(anyCollection())).thenThrow(uniqueKeyConflict());
+
+        ConcurrentUpdateException conflict = assertThrows(ConcurrentUpdateException.class,
+                () -> characterService.addInventoryItems(1L, List.of(new InventoryItemDTO("Potion", "Heals"))));
+        assertFalse(conflict.getMessage().contains("uk_inventory_item_character_definition"));
+        verify(inventoryItemRepository, times(3)).saveAll(anyCollection());
+
+        clearInvocations(inventoryItemRepository);
+        doThrow(new DataIntegrityViolationException("NULL not allowed for column \"NAME\""))
+                .when(inventoryItemRepository).saveAll(anyCollection());
+        assertThrows(DataIntegrityViolationException.class,
+                () -> characterService.addInventoryItems(1L, List.of(new InventoryItemDTO("Potion", "Heals"))));
+        verify(inventoryItemRepository, times(1)).saveAll(anyCollection());
+    }
+
+    /**
+     * ➕ Ökningen träffar ingen rad (stapeln togs bort under tiden) => stapeln skapas igen i stället för att tappas.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void addInventoryItems_shouldRecreateStackWhenIncrementHitsNoRow() {
+        ItemDefinition potion = stackOf("Potion", 5L, 2);
+        when(inventoryItemRepository.findStackedDefinitionIds(eq(1L), anyCollection()))
+                .thenReturn(List.of(5L))
+                .thenReturn(List.of()); // borta vid omkontrollen => inte "för stor"
+        when(inventoryItemRepository.addQuantity(1L, 5L, 2, InventoryItem.MAX_QUANTITY)).thenReturn(0);
+
+        characterService.addInventoryItems(1L, List.of(new InventoryItemDTO("Potion", "Heals")));
+
+        ArgumentCaptor<List<InventoryItem>> saved = ArgumentCaptor.forClass(List.class);
+        verify(inventoryItemRepository).saveAll(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        assertSame(potion, saved.getValue().get(0).getDefinition());
+        assertEquals(2, saved.getValue().get(0).getQuantity());
+    }
+
+    // Som Spring översätter en unik nyckel-krock från Hibernate (MySQL 1062 / H2 23505)
+    private static DataIntegrityViolationException uniqueKeyConflict() {
+        return new DataIntegrityViolationException("could not execute statement", new ConstraintViolationException(
+                "Duplicate entry", new SQLException("Duplicate entry", "23000", 1062), null,
+                ConstraintViolationException.ConstraintKind.UNIQUE, "uk_inventory_item_character_definition"));
+    }
+
+    // Karaktär 1 finns, och items blir en stapel med definitionen (id) och antalet
+    private ItemDefinition stackOf(String name, Long definitionId, int quantity) {
+        ItemDefinition definition = new ItemDefinition(definitionId, name, "Heals");
+        Map<ItemDefinition, Integer> stacks = new LinkedHashMap<>();
+        stacks.put(definition, quantity);
+        when(characterRepository.existsById(1L)).thenReturn(true);
+        when(itemDefinitionService.resolveStacks(any())).thenReturn(stacks);
+        return definition;
+    }
+}
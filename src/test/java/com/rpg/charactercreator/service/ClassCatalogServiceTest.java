@@ -0,0 +1,185 @@
+package com.rpg.charactercreator.service;
+
+// 📦 DTOs och modeller
+import com.rpg.charactercreator.dto.NameSuggestionDTO;
+import com.rpg.charactercreator.model.RPGClass;
+
+// 📦 Repositories
+import com.rpg.charactercreator.repository.RPGClassRepository;
+import com.rpg.charactercreator.repository.SkillRepository;
+import com.rpg.charactercreator.repository.StartingItemRepository;
+
+// 📦 JUnit, Mockito & Spring
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ✅ Enhetstest för ClassCatalogService.
+ * Testar att katalog-bilden versioneras, är skrivskyddad och – liksom klassnamns-indexet – bara byts efter commit.
+ */
+public class ClassCatalogServiceTest {
+
+    private RPGClassRepository classRepository;
+    private ClassCatalogService catalogService;
+
+    @BeforeEach
+    void setUp() {
+        classRepository = mock(RPGClassRepository.class);
+        catalogService = new ClassCatalogService(
+                classRepository, mock(SkillRepository.class), mock(StartingItemRepository.class),
+                mock(PlatformTransactionManager.class)
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * 🔄 Varje omladdning ger en ny version, och gamla bilder påverkas inte av ändringar i entiteterna.
+     */
+    @Test
+    void refresh_shouldPublishNewVersionWithDetachedCopies() {
+        RPGClass warrior = rpgClass("Warrior");
+        when(classRepository.findAllWithSkills()).thenReturn(List.of(warrior));
+
+        ClassCatalog first = catalogService.current();
+        warrior.setName("Berserker");
+        ClassCatalog second = catalogService.refresh();
+
+        assertEquals(first.version() + 1, second.version());
+        assertNotEquals(first.etag(), second.etag());
+        assertTrue(first.findByName("Warrior").isPresent());
+        assertTrue(second.findByName("Berserker").isPresent());
+        assertThrows(UnsupportedOperationException.class, () -> first.classes().add(new RPGClass()));
+        assertThrows(UnsupportedOperationException.class,
+                () -> first.findByName("Warrior").orElseThrow().getWeapons().add("Club"));
+    }
+
+    /**
+     * ⏳ Inom en transaktion byts bilden först efter commit – en rollback lämnar den orörd.
+     */
+    @Test
+    void refreshAfterCommit_shouldSwapOnlyAfterCommit() {
+        when(classRepository.findAllWithSkills()).thenReturn(List.of(rpgClass("Warrior")));
+        long firstVersion = catalogService.current().version();
+
+        when(classRepository.findAllWithSkills()).thenReturn(List.of(rpgClass("Warrior"), rpgClass("Mage")));
+        TransactionSynchronizationManager.initSynchronization();
+        catalogService.refreshAfterCommit();
+
+        assertEquals(1, catalogService.current().classes().size());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(2, catalogService.current().classes().size());
+        assertEquals(firstVersion + 1, catalogService.current().version());
+    }
+
+    /**
+     * 🔤 Klassnamns-indexet för autocomplete följer katalogen: nya namn syns efter commit, och en
+     * borttagning som rullas tillbaka lämnar namnet kvar.
+     */
+    @Test
+    void classNameIndex_shouldChangeOnlyAfterCommit() {
+        RPGClassService classService = new RPGClassService(classRepository, catalogService);
+        RPGClass paladin = rpgClass("Paladin");
+        when(classRepository.save(paladin)).thenReturn(paladin);
+
+        TransactionSynchronizationManager.initSynchronization();
+        classService.createClass(paladin);
+        assertTrue(classService.suggestNames("pal", 10).isEmpty());
+        when(classRepository.findAllWithSkills()).thenReturn(List.of(paladin)); // det committade läget
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, classService.suggestNames("pal", 10).size());
+        TransactionSynchronizationManager.clearSynchronization();
+
+        TransactionSynchronizationManager.initSynchronization();
+        classService.deleteById(paladin.getClassId());
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertEquals(1, classService.suggestNames("pal", 10).size());
+    }
+
+    /**
+     * ✏️ Batch-uppdatering som rullas tillbaka lämnar de gamla klassnamnen i indexet.
+     */
+    @Test
+    void updateClasses_shouldRenameInIndexOnlyAfterCommit() {
+        RPGClassService classService = new RPGClassService(classRepository, catalogService);
+        RPGClass warrior = rpgClass("Warrior");
+        when(classRepository.findAllNames()).thenReturn(List.of(new NameSuggestionDTO(warrior.getClassId(), "Warrior")));
+        when(classRepository.findAllById(List.of(warrior.getClassId()))).thenReturn(List.of(warrior));
+        classService.loadClassNameIndex();
+
+        RPGClass rename = new RPGClass();
+        rename.setClassId(warrior.getClassId());
+        rename.setName("Berserker");
+        TransactionSynchronizationManager.initSynchronization();
+        classService.updateClasses(List.of(rename));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(1, classService.suggestNames("warr", 10).size());
+        assertTrue(classService.suggestNames("bers", 10).isEmpty());
+    }
+
+    /**
+     * 🔁 Periodisk omladdning (multi-nod): oförändrat innehåll behåller bilden, och samma innehåll
+     * ger samma ETag på en annan nod.
+     */
+    @Test
+    void refreshIfChanged_shouldKeepSnapshotUntilContentChanges() {
+        when(classRepository.findAllWithSkills()).thenAnswer(invocation -> List.of(rpgClass("Warrior")));
+        ClassCatalog first = catalogService.current();
+
+        assertFalse(catalogService.refreshIfChanged());
+        assertSame(first, catalogService.current());
+
+        ClassCatalogService otherNode = new ClassCatalogService(
+                classRepository, mock(SkillRepository.class), mock(StartingItemRepository.class),
+                mock(PlatformTransactionManager.class)
+        );
+        assertEquals(first.etag(), otherNode.current().etag());
+
+        when(classRepository.findAllWithSkills()).thenAnswer(invocation -> List.of(rpgClass("Warrior"), rpgClass("Mage")));
+        assertTrue(catalogService.refreshIfChanged());
+        assertEquals(first.version() + 1, catalogService.current().version());
+        assertNotEquals(first.etag(), catalogService.current().etag());
+    }
+
+    /**
+     * 🔤 En ny bild från en annan nods skrivning synkar klassnamns-indexet: nya namn in, borttagna ut.
+     */
+    @Test
+    void classNameIndex_shouldFollowCatalogChangedOnAnotherNode() {
+        RPGClassService classService = new RPGClassService(classRepository, catalogService);
+        when(classRepository.findAllNames()).thenReturn(List.of(new NameSuggestionDTO(1L, "Warrior")));
+        classService.loadClassNameIndex();
+
+        when(classRepository.findAllWithSkills()).thenAnswer(invocation -> List.of(rpgClass("Paladin")));
+        assertTrue(catalogService.refreshIfChanged());
+
+        assertEquals(List.of("Paladin"),
+                classService.suggestNames("", 10).stream().map(NameSuggestionDTO::getName).toList());
+    }
+
+    private static RPGClass rpgClass(String name) {
+        RPGClass rpgClass = new RPGClass();
+        rpgClass.setClassId((long) name.hashCode());
+        rpgClass.setName(name);
+        rpgClass.setWeapons(new ArrayList<>(List.of(name + " Sword")));
+        return rpgClass;
+    }
+}
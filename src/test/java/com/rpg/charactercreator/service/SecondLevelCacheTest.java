@@ -0,0 +1,179 @@
+package com.rpg.charactercreator.service;
+
+// 📦 DTOs och modeller
+import com.rpg.charactercreator.dto.CacheStatsDTO;
+import com.rpg.charactercreator.model.CacheRegions;
+import com.rpg.charactercreator.model.RPGClass;
+import com.rpg.charactercreator.model.Role;
+import com.rpg.charactercreator.model.Skill;
+import com.rpg.charactercreator.model.User;
+
+// 📦 Repositories
+import com.rpg.charactercreator.repository.RPGClassRepository;
+import com.rpg.charactercreator.repository.RoleRepository;
+import com.rpg.charactercreator.repository.SkillRepository;
+import com.rpg.charactercreator.repository.UserRepository;
+
+// 📦 JUnit, Spring & Hibernate
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ✅ Second-level cache för referensdata (roller, klasser, skills) mot en in-memory databas.
+ * Testerna committar på riktigt (ingen test-transaktion), eftersom cachen bara uppdateras vid commit.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Import(CacheStatsService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private RPGClassRepository classRepository;
+
+    @Autowired
+    private SkillRepository skillRepository;
+
+    @Autowired
+    private CacheStatsService cacheStatsService;
+
+    private Statistics statistics;
+    private TransactionTemplate transaction;
+
+    /**
+     * 🔧 Tom cache + en roll, en användare och en klass med en skill (committade).
+     */
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        transaction = new TransactionTemplate(transactionManager);
+
+        Role role = roleRepository.save(new Role("ROLE_USER"));
+        User user = new User();
+        user.setUsername("cached");
+        user.setEmail("cached@example.com");
+        user.setPassword("secret");
+        user.setRoles(Set.of(role));
+        userRepository.save(user);
+
+        RPGClass rpgClass = new RPGClass();
+        rpgClass.setName("Cleric");
+        rpgClass.setWeapons(new ArrayList<>(List.of("Mace")));
+        rpgClass.setSkillList(new ArrayList<>());
+        classRepository.save(rpgClass);
+        skillRepository.save(skill("Heal", rpgClass));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        skillRepository.deleteAll();
+        classRepository.deleteAll();
+        roleRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    /**
+     * 🔐 Andra inloggningen ska få användarens roller ur cachen utan SQL för roller.
+     */
+    @Test
+    void userRoles_shouldComeFromCacheOnSecondLoad() {
+        loadRoleNames("cached");
+        statistics.clear();
+
+        assertEquals(Set.of("ROLE_USER"), loadRoleNames("cached"));
+        assertEquals(1, statistics.getPrepareStatementCount(), "Only the users row should be read");
+        assertTrue(stats(CacheRegions.USER_ROLES).getHits() > 0);
+        assertTrue(stats(CacheRegions.ROLES).getHits() > 0);
+    }
+
+    /**
+     * 🔎 RoleRepository.findByName ska svaras från query-cachen andra gången.
+     */
+    @Test
+    void findRoleByName_shouldHitQueryCache() {
+        roleRepository.findByName("ROLE_USER").orElseThrow();
+        statistics.clear();
+
+        roleRepository.findByName("ROLE_USER").orElseThrow();
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, stats(CacheStatsService.QUERY_CACHE).getHits());
+    }
+
+    /**
+     * ♻️ En ny skill via SkillRepository ska evicta klassens cachade skillList (inverse-sidan).
+     */
+    @Test
+    void savingSkill_shouldInvalidateCachedSkillList() {
+        assertEquals(List.of("Heal"), loadSkillNames("Cleric"));
+        assertEquals(List.of("Heal"), loadSkillNames("Cleric"));
+        assertTrue(stats(CacheRegions.RPG_CLASS_SKILLS).getHits() > 0);
+
+        RPGClass cleric = classRepository.findByName("Cleric").orElseThrow();
+        skillRepository.save(skill("Smite", cleric));
+
+        assertEquals(Set.of("Heal", "Smite"), Set.copyOf(loadSkillNames("Cleric")));
+    }
+
+    private Set<String> loadRoleNames(String username) {
+        return transaction.execute(status -> userRepository.findByUsername(username).orElseThrow()
+                .getRoles().stream().map(Role::getName).collect(Collectors.toSet()));
+    }
+
+    private List<String> loadSkillNames(String className) {
+        return transaction.execute(status -> {
+            Long id = classRepository.findByName(className).orElseThrow().getClassId();
+            return classRepository.findById(id).orElseThrow()
+                    .getSkillList().stream().map(Skill::getName).toList();
+        });
+    }
+
+    private CacheStatsDTO stats(String name) {
+        return cacheStatsService.secondLevelCacheStats().stream()
+                .filter(s -> s.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static Skill skill(String name, RPGClass rpgClass) {
+        Skill skill = new Skill();
+        skill.setName(name);
+        skill.setRpgClass(rpgClass);
+        return skill;
+    }
+}
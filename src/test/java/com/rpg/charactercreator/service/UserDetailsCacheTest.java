@@ -0,0 +1,120 @@
+package com.rpg.charactercreator.service;
+
+// 📦 Modeller & repositories
+import com.rpg.charactercreator.model.Role;
+import com.rpg.charactercreator.model.User;
+import com.rpg.charactercreator.repository.UserRepository;
+
+// 📦 JUnit, Mockito & Spring Security
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ✅ Enhetstest för UserDetailsCache och hur CustomUserDetailsService använder den.
+ */
+public class UserDetailsCacheTest {
+
+    private AtomicLong now;
+    private UserDetailsCache cache;
+    private UserRepository userRepository;
+    private CustomUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong();
+        cache = new UserDetailsCache(now::get);
+        userRepository = mock(UserRepository.class);
+        userDetailsService = new CustomUserDetailsService(userRepository, cache);
+
+        User alice = new User();
+        alice.setUsername("alice");
+        alice.setPassword("$2a$10$hash");
+        alice.getRoles().add(new Role("ROLE_USER"));
+        when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(alice));
+    }
+
+    /**
+     * 🔁 Andra inloggningen (oavsett skiftläge) går inte till databasen, och räknas som träff.
+     */
+    @Test
+    void loadUserByUsername_shouldHitDatabaseOncePerTtl() {
+        userDetailsService.loadUserByUsername("alice");
+        UserDetails second = userDetailsService.loadUserByUsername("Alice");
+
+        verify(userRepository, times(1)).findByUsername(anyString());
+        assertEquals("alice", second.getUsername());
+        assertEquals(1, cache.stats().getHits());
+        assertEquals(1, cache.stats().getMisses());
+        assertEquals(0.5, cache.stats().getHitRatio());
+
+        now.addAndGet(UserDetailsCache.TTL.toNanos());
+        userDetailsService.loadUserByUsername("alice");
+        verify(userRepository, times(2)).findByUsername(anyString());
+    }
+
+    /**
+     * ⛔ TTL 0 (stateless-läge, flera noder) => inget cachas, varje inloggning läser databasen.
+     */
+    @Test
+    void putUserInCache_shouldBeNoOpWhenTtlIsZero() {
+        cache = new UserDetailsCache(Duration.ZERO, now::get);
+        userDetailsService = new CustomUserDetailsService(userRepository, cache);
+
+        userDetailsService.loadUserByUsername("alice");
+        userDetailsService.loadUserByUsername("alice");
+
+        verify(userRepository, times(2)).findByUsername(anyString());
+        assertEquals(0, cache.stats().getSize());
+    }
+
+    /**
+     * 🔒 Att radera lösenordet i ett utlämnat UserDetails (eraseCredentials) får inte påverka cachen.
+     */
+    @Test
+    void getUserFromCache_shouldReturnIndependentCopies() {
+        UserDetails loaded = userDetailsService.loadUserByUsername("alice");
+        ((CredentialsContainer) loaded).eraseCredentials();
+
+        UserDetails cached = cache.getUserFromCache("alice");
+        ((CredentialsContainer) cached).eraseCredentials();
+
+        assertEquals("$2a$10$hash", cache.getUserFromCache("alice").getPassword());
+        assertEquals("ROLE_USER", cache.getUserFromCache("alice").getAuthorities().iterator().next().getAuthority());
+    }
+
+    /**
+     * ❌ Borttagen användare läses om från databasen vid nästa inloggning.
+     */
+    @Test
+    void removeUserFromCacheAfterCommit_shouldEvictImmediatelyOutsideTransaction() {
+        userDetailsService.loadUserByUsername("alice");
+
+        cache.removeUserFromCacheAfterCommit("ALICE");
+
+        assertNull(cache.getUserFromCache("alice"));
+        assertEquals(0, cache.stats().getSize());
+    }
+
+    /**
+     * 🔐 Uppgraderad hash (högre BCrypt-kostnad) sparas i databasen och syns direkt i cachen.
+     */
+    @Test
+    void updatePassword_shouldPersistNewHashAndRefreshCache() {
+        UserDetails loaded = userDetailsService.loadUserByUsername("alice");
+
+        UserDetails updated = userDetailsService.updatePassword(loaded, "$2a$12$newhash");
+
+        verify(userRepository).updatePasswordByUsername("alice", "$2a$12$newhash");
+        assertEquals("$2a$12$newhash", updated.getPassword());
+        assertEquals("$2a$12$newhash", cache.getUserFromCache("alice").getPassword());
+    }
+}